@@ -0,0 +1,111 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import nz.ac.auckland.se281.GraphCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long a {@link GraphCalculator} takes to load a test case, both by reading the DOT
+ * file and from the snapshot that the first load leaves behind. The test case is generated into the
+ * {@code testcases} directory before the benchmark and deleted afterwards, so the benchmarks must
+ * be run from the root of the project. The graph cache is turned off in the forked JVM, as
+ * otherwise every load after the first would be answered from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Dse281.cacheBytes=0")
+public class LoadBenchmark {
+  private static final Path TESTCASES = Path.of("testcases");
+
+  @Param({"CHAIN", "STAR", "ERDOS_RENYI", "POWER_LAW", "EQUIVALENCE"})
+  private SyntheticGraphs family;
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private String filename;
+  private Path file;
+  private Path snapshot;
+
+  /**
+   * Writes the test case, and loads it once to write its snapshot.
+   *
+   * @throws IOException If the test case cannot be written.
+   */
+  @Setup(Level.Trial)
+  public void writeTestCase() throws IOException {
+    filename = "jmh-" + family.name().toLowerCase() + "-" + size + ".txt";
+    file = TESTCASES.resolve(filename);
+    snapshot = TESTCASES.resolve(filename + ".snapshot");
+    family.write(file, size, 281);
+    new GraphCalculator(filename);
+  }
+
+  /**
+   * Deletes the test case and its snapshot.
+   *
+   * @throws IOException If they cannot be deleted.
+   */
+  @TearDown(Level.Trial)
+  public void deleteTestCase() throws IOException {
+    Files.deleteIfExists(snapshot);
+    Files.deleteIfExists(file);
+  }
+
+  /** Holds a test case that has no snapshot, so that it has to be read from its DOT file. */
+  @State(Scope.Thread)
+  public static class NoSnapshot {
+    /**
+     * Deletes the snapshot left by the last load.
+     *
+     * @param load the test case
+     * @throws IOException If the snapshot cannot be deleted.
+     */
+    @Setup(Level.Invocation)
+    public void deleteSnapshot(LoadBenchmark load) throws IOException {
+      Files.deleteIfExists(load.snapshot);
+    }
+  }
+
+  /**
+   * Loads the test case from its DOT file, which includes writing its snapshot.
+   *
+   * @param state makes sure that there is no snapshot to load from
+   * @return the calculator
+   * @throws FileNotFoundException If the test case does not exist.
+   */
+  @Benchmark
+  public GraphCalculator readFile(NoSnapshot state) throws FileNotFoundException {
+    return new GraphCalculator(filename);
+  }
+
+  /**
+   * Loads the test case from its snapshot.
+   *
+   * @return the calculator
+   * @throws FileNotFoundException If the test case does not exist.
+   */
+  @Benchmark
+  public GraphCalculator readSnapshot() throws FileNotFoundException {
+    return new GraphCalculator(filename);
+  }
+}
@@ -0,0 +1,125 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import nz.ac.auckland.se281.datastructures.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the relation property checks, the roots and the equivalence classes of a graph. A graph
+ * remembers the properties it has found, so every invocation gets a newly generated graph, which is
+ * not part of the time measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PropertyBenchmark {
+  @Param({"CHAIN", "STAR", "ERDOS_RENYI", "POWER_LAW", "EQUIVALENCE"})
+  private SyntheticGraphs family;
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private Graph<String> graph;
+
+  /** Generates a graph that has not found any of its properties yet. */
+  @Setup(Level.Invocation)
+  public void generate() {
+    graph = family.build(size, 281);
+  }
+
+  /**
+   * Checks if the graph is reflexive.
+   *
+   * @return the result
+   */
+  @Benchmark
+  public boolean isReflexive() {
+    return graph.isReflexive();
+  }
+
+  /**
+   * Checks if the graph is symmetric.
+   *
+   * @return the result
+   */
+  @Benchmark
+  public boolean isSymmetric() {
+    return graph.isSymmetric();
+  }
+
+  /**
+   * Checks if the graph is transitive.
+   *
+   * @return the result
+   */
+  @Benchmark
+  public boolean isTransitive() {
+    return graph.isTransitive();
+  }
+
+  /**
+   * Checks if the graph is anti-symmetric.
+   *
+   * @return the result
+   */
+  @Benchmark
+  public boolean isAntiSymmetric() {
+    return graph.isAntiSymmetric();
+  }
+
+  /**
+   * Checks if the graph is an equivalence relation.
+   *
+   * @return the result
+   */
+  @Benchmark
+  public boolean isEquivalence() {
+    return graph.isEquivalence();
+  }
+
+  /**
+   * Finds the roots of the graph.
+   *
+   * @return the roots
+   */
+  @Benchmark
+  public Set<String> getRoots() {
+    return graph.getRoots();
+  }
+
+  /**
+   * Finds the equivalence class of the first vertex.
+   *
+   * @return the class
+   */
+  @Benchmark
+  public Set<String> getEquivalenceClass() {
+    return graph.getEquivalenceClass("0");
+  }
+
+  /**
+   * Finds every equivalence class.
+   *
+   * @return the classes
+   */
+  @Benchmark
+  public List<List<String>> getEquivalenceClasses() {
+    return graph.getEquivalenceClasses();
+  }
+}
@@ -0,0 +1,95 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import nz.ac.auckland.se281.datastructures.BreadthFirstLevels;
+import nz.ac.auckland.se281.datastructures.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the searches of a graph. The searches do not change the graph, so one graph is generated
+ * for the whole benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+  @Param({"CHAIN", "STAR", "ERDOS_RENYI", "POWER_LAW", "EQUIVALENCE"})
+  private SyntheticGraphs family;
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  private Graph<String> graph;
+
+  /** Generates the graph, and finds its roots so that every search starts from the same place. */
+  @Setup
+  public void generate() {
+    graph = family.build(size, 281);
+    graph.getRoots();
+  }
+
+  /**
+   * Searches the graph breadth first, iteratively.
+   *
+   * @return the search order
+   */
+  @Benchmark
+  public List<String> iterativeBreadthFirstSearch() {
+    return graph.iterativeBreadthFirstSearch();
+  }
+
+  /**
+   * Searches the graph depth first, iteratively.
+   *
+   * @return the search order
+   */
+  @Benchmark
+  public List<String> iterativeDepthFirstSearch() {
+    return graph.iterativeDepthFirstSearch();
+  }
+
+  /**
+   * Searches the graph breadth first, recursively.
+   *
+   * @return the search order
+   */
+  @Benchmark
+  public List<String> recursiveBreadthFirstSearch() {
+    return graph.recursiveBreadthFirstSearch();
+  }
+
+  /**
+   * Searches the graph depth first, recursively.
+   *
+   * @return the search order
+   */
+  @Benchmark
+  public List<String> recursiveDepthFirstSearch() {
+    return graph.recursiveDepthFirstSearch();
+  }
+
+  /**
+   * Searches the graph breadth first, a level at a time across the common pool.
+   *
+   * @return the levels
+   */
+  @Benchmark
+  public BreadthFirstLevels<String> parallelBreadthFirstSearch() {
+    return graph.parallelBreadthFirstSearch(ForkJoinPool.commonPool());
+  }
+}
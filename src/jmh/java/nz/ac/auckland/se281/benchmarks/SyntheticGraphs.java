@@ -0,0 +1,164 @@
+package nz.ac.auckland.se281.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import nz.ac.auckland.se281.DotWriter;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+
+/**
+ * The families of synthetic graph that the benchmarks are run on. Every family is generated from a
+ * number of verticies and a seed, so the same parameters always give the same graph. Verticies are
+ * named by their number, from {@code 0} up to one less than the number of verticies.
+ */
+public enum SyntheticGraphs {
+  /** A single path through every vertex in order, the deepest graph there is. */
+  CHAIN {
+    @Override
+    void generate(int size, SplittableRandom random, EdgeSink edges) {
+      for (int vertex = 1; vertex < size; vertex++) {
+        edges.accept(vertex - 1, vertex);
+      }
+    }
+  },
+
+  /** An edge from vertex {@code 0} to every other vertex, the widest graph there is. */
+  STAR {
+    @Override
+    void generate(int size, SplittableRandom random, EdgeSink edges) {
+      for (int vertex = 1; vertex < size; vertex++) {
+        edges.accept(0, vertex);
+      }
+    }
+  },
+
+  /** Edges picked uniformly at random, {@value #AVERAGE_DEGREE} for every vertex. */
+  ERDOS_RENYI {
+    @Override
+    void generate(int size, SplittableRandom random, EdgeSink edges) {
+      for (long edge = 0; edge < (long) size * AVERAGE_DEGREE; edge++) {
+        edges.accept(random.nextInt(size), random.nextInt(size));
+      }
+    }
+  },
+
+  /**
+   * Preferential attachment, where each vertex adds edges to {@value #AVERAGE_DEGREE} earlier ones
+   * picked in proportion to the edges they already have, which gives a few hubs with very high
+   * degree and a long tail of verticies with very low degree.
+   */
+  POWER_LAW {
+    @Override
+    void generate(int size, SplittableRandom random, EdgeSink edges) {
+      // every edge puts both of its verticies in the list, so picking from it uniformly picks a
+      // vertex in proportion to its degree
+      int[] ends = new int[Math.max(2, size * AVERAGE_DEGREE * 2)];
+      int endCount = 0;
+      for (int vertex = 1; vertex < size; vertex++) {
+        for (int edge = 0; edge < AVERAGE_DEGREE; edge++) {
+          int target = endCount == 0 ? 0 : ends[random.nextInt(endCount)];
+          edges.accept(vertex, target);
+          ends[endCount++] = vertex;
+          ends[endCount++] = target;
+        }
+      }
+    }
+  },
+
+  /**
+   * A complete equivalence relation, where the verticies are split into classes of {@value
+   * #CLASS_SIZE} consecutive verticies and every vertex has an edge to every vertex in its class.
+   */
+  EQUIVALENCE {
+    @Override
+    void generate(int size, SplittableRandom random, EdgeSink edges) {
+      for (int start = 0; start < size; start += CLASS_SIZE) {
+        int end = Math.min(size, start + CLASS_SIZE);
+        for (int source = start; source < end; source++) {
+          for (int destination = start; destination < end; destination++) {
+            edges.accept(source, destination);
+          }
+        }
+      }
+    }
+  };
+
+  /** The number of edges for each vertex in the random families. */
+  static final int AVERAGE_DEGREE = 4;
+
+  /** The number of verticies in each class of an equivalence relation. */
+  static final int CLASS_SIZE = 16;
+
+  /** Receives the edges of a graph as they are generated. */
+  @FunctionalInterface
+  interface EdgeSink {
+    /**
+     * Receives an edge, which may have been generated before.
+     *
+     * @param source the number of the source vertex
+     * @param destination the number of the destination vertex
+     */
+    void accept(int source, int destination);
+  }
+
+  /**
+   * Generates the edges of a graph of this family.
+   *
+   * @param size the number of verticies
+   * @param random the source of randomness
+   * @param edges where to send each edge
+   */
+  abstract void generate(int size, SplittableRandom random, EdgeSink edges);
+
+  /**
+   * Generates a graph of this family.
+   *
+   * @param size the number of verticies
+   * @param seed the seed of the random families
+   * @return the graph
+   */
+  public Graph<String> build(int size, long seed) {
+    GraphBuilder<String> builder = new GraphBuilder<>();
+    for (int vertex = 0; vertex < size; vertex++) {
+      builder.addVertex(String.valueOf(vertex));
+    }
+    // the builder numbers the verticies in the order they were added, which is their number here
+    generate(size, new SplittableRandom(seed), builder::addEdge);
+    return builder.build();
+  }
+
+  /**
+   * Generates a graph of this family and writes it to a file in the DOT language.
+   *
+   * @param file the file to write
+   * @param size the number of verticies
+   * @param seed the seed of the random families
+   * @throws IOException If the file cannot be written.
+   */
+  public void write(Path file, int size, long seed) throws IOException {
+    String name = name().toLowerCase();
+    try (DotWriter<Integer> writer = new DotWriter<>(Files.newOutputStream(file), name)) {
+      for (int vertex = 0; vertex < size; vertex++) {
+        writer.writeVertex(vertex);
+      }
+
+      try {
+        generate(
+            size,
+            new SplittableRandom(seed),
+            (source, destination) -> {
+              try {
+                writer.writeEdge(source, destination);
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
@@ -10,19 +10,30 @@ public enum Command {
   INFO(0, "Print information about the current loaded file"),
 
   LIST_VERTICIES_EDGES(0, "List the set of vertices and edges"),
+  ADD_EDGE(2, "Add an edge from <SOURCE> to <DESTINATION> to the loaded graph"),
+  REMOVE_EDGE(2, "Remove the edge from <SOURCE> to <DESTINATION> from the loaded graph"),
   LIST_ROOT_VERTICIES(0, "List the set of root vertices"),
+  LIST_COMPONENT_ROOTS(0, "List the lowest vertex of each strongly connected source component"),
 
   CHECK_REFLEXIVITY(0, "Check reflexivity of the graph"),
   CHECK_SYMMETRY(0, "Check symmetry of the graph"),
   CHECK_TRANSITIVITY(0, "Check transitivity of the graph"),
   CHECK_ANTISYMMETRY(0, "Check anti-symmetry of the graph"),
   CHECK_EQUIVALENCE(0, "Check equivalence of the graph"),
+  ANALYZE(0, "Check every property of the graph at once, and report them together"),
   COMPUTE_EQUIVALENCE(1, "Compute equivalence class for a vertex in loaded file <VERTEX>"),
+  COMPUTE_ALL_EQUIVALENCE(0, "Compute every equivalence class in the loaded file"),
+  COMPUTE_CLOSURE(0, "Compute the transitive closure of the loaded file, and list its edges"),
+  COMPUTE_COMPONENTS(0, "Compute the strongly connected components of the loaded file"),
+  CHECK_REACHABILITY(2, "Check if <DESTINATION> can be reached from <SOURCE> in the loaded file"),
 
   GRAPH_SEARCH_IBFS(
       0, "Perform a breadth-first search on the current loaded file, and display the BFS order"),
   GRAPH_SEARCH_IDFS(
       0, "Perform a depth-first search on the current loaded file, and display the DFS order"),
+  GRAPH_SEARCH_PBFS(
+      0,
+      "Perform a parallel breadth-first search from every root at once, and display each level"),
 
   GRAPH_SEARCH_RBFS(
       0,
@@ -0,0 +1,584 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+
+/**
+ * A streaming reader for graphs written in the DOT language. It reads the file in a single pass
+ * through a fixed size buffer and feeds every vertex and edge straight into a {@link GraphBuilder},
+ * so the whole file never has to be held in memory. Vertex names are looked up by their bytes, so
+ * a string is only created the first time each vertex is seen.
+ *
+ * <p>Only the part of the language used by the test cases is understood: a {@code digraph} made of
+ * vertex statements ({@code a;}) and edge statements ({@code a -> b;}, or chains such as {@code a
+ * -> b -> c;}). Attribute lists, graph attribute assignments, and {@code //}, {@code /* *}{@code /}
+ * and {@code #} comments are skipped. Subgraphs and undirected edges are rejected.
+ */
+public class DotReader {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  // the kinds of token
+  private static final int END = 0;
+  private static final int ID = 1;
+  private static final int ARROW = 2;
+  private static final int OPEN_BRACE = 3;
+  private static final int CLOSE_BRACE = 4;
+  private static final int OPEN_BRACKET = 5;
+  private static final int CLOSE_BRACKET = 6;
+  private static final int EQUALS = 7;
+  private static final int SEPARATOR = 8;
+
+  private final InputStream input;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+  private int limit;
+  // the number of bytes of the stream before the start of the buffer
+  private long offset;
+
+  private byte[] token = new byte[64];
+  private int tokenLength;
+  private int line = 1;
+
+  // a token that has been read ahead and put back
+  private int pushedBack = -1;
+
+  // an open-addressing table from the bytes of each vertex name to its id in the builder, stored
+  // as pairs of a key and a value. Names of up to seven bytes are packed into the key itself, so
+  // looking them up touches a single slot. Longer names are keyed by their hash and checked against
+  // their bytes, which are kept in the names array. The value holds the id of the vertex in its low
+  // half and the number of its long name in its high half. A key of zero marks an empty slot.
+  private long[] table = new long[2 << 10];
+  private int tableCount;
+  private byte[] names = new byte[1 << 12];
+  private int namesLength;
+  private int[] nameStarts = new int[16];
+  private int[] nameLengths = new int[16];
+  private int nameCount;
+
+  // the first id of the current statement, kept until it is known whether it is a vertex
+  private byte[] statementName = new byte[64];
+  private int statementNameLength;
+
+  /**
+   * Creates a reader for the given stream. The stream is read with its own buffer, so it does not
+   * need to be buffered already.
+   *
+   * @param input the stream to read the graph from
+   */
+  public DotReader(final InputStream input) {
+    this.input = input;
+  }
+
+  /**
+   * Reads the graph from the stream.
+   *
+   * @return the graph
+   * @throws IOException if the stream cannot be read
+   * @throws IllegalArgumentException if the stream is not a graph in the supported part of DOT
+   */
+  public Graph<String> read() throws IOException {
+    final GraphBuilder<String> builder = new GraphBuilder<>();
+    read(builder);
+    return builder.build();
+  }
+
+  /**
+   * Reads the graph from the stream, adding each vertex and edge to the given builder as soon as
+   * it is read.
+   *
+   * @param builder the builder to add the verticies and edges to
+   * @throws IOException if the stream cannot be read
+   * @throws IllegalArgumentException if the stream is not a graph in the supported part of DOT
+   */
+  public void read(final GraphBuilder<String> builder) throws IOException {
+    readHeader();
+    if (!readBody(builder)) {
+      throw error("expected '}' before the end of the file");
+    }
+  }
+
+  /**
+   * Reads the header of the graph, up to and including its opening brace.
+   *
+   * @throws IOException if the stream cannot be read
+   * @throws IllegalArgumentException if the stream does not start with a digraph header
+   */
+  public void readHeader() throws IOException {
+    // strict? digraph ID? {
+    int kind = nextToken();
+    if (kind == ID && tokenEquals("strict")) {
+      kind = nextToken();
+    }
+    if (kind != ID || !tokenEquals("digraph")) {
+      throw error("expected 'digraph'");
+    }
+    kind = nextToken();
+    if (kind == ID) {
+      kind = nextToken();
+    }
+    if (kind != OPEN_BRACE) {
+      throw error("expected '{'");
+    }
+  }
+
+  /**
+   * Reads statements until the closing brace of the graph or the end of the stream, adding each
+   * vertex and edge to the given builder as soon as it is read. This can be used on its own to read
+   * a run of whole statements from the middle of a graph.
+   *
+   * @param builder the builder to add the verticies and edges to
+   * @return {@code true} if the closing brace was read, {@code false} if the stream ended first
+   * @throws IOException if the stream cannot be read
+   * @throws IllegalArgumentException if a statement is not in the supported part of DOT
+   */
+  public boolean readBody(final GraphBuilder<String> builder) throws IOException {
+    int kind;
+    while ((kind = nextToken()) != CLOSE_BRACE) {
+      switch (kind) {
+        case SEPARATOR:
+          break;
+        case ID:
+          readStatement(builder);
+          break;
+        case END:
+          return false;
+        default:
+          throw error("unexpected '" + tokenString() + "'");
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the number of bytes of the stream that have been consumed so far.
+   *
+   * @return the position in the stream
+   */
+  public long getPosition() {
+    return offset + position;
+  }
+
+  /**
+   * Reads the rest of a statement whose first token is an id that has just been read.
+   *
+   * @param builder the builder to add the verticies and edges to
+   * @throws IOException if the stream cannot be read
+   */
+  private void readStatement(final GraphBuilder<String> builder) throws IOException {
+    final boolean isKeyword = tokenEquals("node") || tokenEquals("edge") || tokenEquals("graph");
+    // keep the name, as it is only a vertex if this is not an attribute statement
+    if (statementName.length < tokenLength) {
+      statementName = Arrays.copyOf(token, tokenLength);
+    }
+    System.arraycopy(token, 0, statementName, 0, tokenLength);
+    statementNameLength = tokenLength;
+
+    int kind = nextToken();
+    if (kind == EQUALS) {
+      // a graph attribute, such as rankdir = LR
+      if (nextToken() != ID) {
+        throw error("expected a value after '='");
+      }
+      return;
+    }
+    if (isKeyword && kind == OPEN_BRACKET) {
+      // default attributes for the following verticies or edges
+      skipAttributes();
+      return;
+    }
+
+    int vertex = intern(statementName, statementNameLength, builder);
+    while (kind == ARROW) {
+      if (nextToken() != ID) {
+        throw error("expected a vertex after '->'");
+      }
+      final int destination = intern(token, tokenLength, builder);
+      builder.addEdge(vertex, destination);
+      vertex = destination;
+      kind = nextToken();
+    }
+
+    if (kind == OPEN_BRACKET) {
+      skipAttributes();
+    } else {
+      pushedBack = kind;
+    }
+  }
+
+  /**
+   * Gets the id of the vertex with the given name, adding the vertex to the builder the first time
+   * the name is seen.
+   *
+   * @param name the bytes of the name
+   * @param length the number of bytes in the name
+   * @param builder the builder to add the vertex to
+   * @return the id of the vertex in the builder
+   */
+  private int intern(final byte[] name, final int length, final GraphBuilder<String> builder) {
+    final long key = keyOf(name, length);
+    final int mask = (table.length >>> 1) - 1;
+
+    int slot = mix(key) & mask;
+    while (table[slot << 1] != 0) {
+      if (table[slot << 1] == key) {
+        final long value = table[(slot << 1) + 1];
+        final int longName = (int) (value >>> 32);
+        if (isPacked(length)
+            || Arrays.equals(
+                names,
+                nameStarts[longName],
+                nameStarts[longName] + nameLengths[longName],
+                name,
+                0,
+                length)) {
+          return (int) value;
+        }
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    // a new name, so add it to the builder and then to the table
+    final int id = builder.addVertex(new String(name, 0, length, StandardCharsets.UTF_8));
+    int longName = 0;
+    if (!isPacked(length)) {
+      longName = addLongName(name, length);
+    }
+    table[slot << 1] = key;
+    table[(slot << 1) + 1] = ((long) longName << 32) | (id & 0xFFFFFFFFL);
+
+    // keep the table at most half full so probe sequences stay short
+    if (++tableCount > mask >>> 1) {
+      growTable();
+    }
+    return id;
+  }
+
+  /**
+   * Works out the key of a name in the name table. Short names are packed into the key along with
+   * their length, so two short names have the same key only if they are equal.
+   *
+   * @param name the bytes of the name
+   * @param length the number of bytes in the name
+   * @return the key, which is never zero
+   */
+  private static long keyOf(final byte[] name, final int length) {
+    if (isPacked(length)) {
+      long key = (long) length << 56;
+      for (int i = 0; i < length; i++) {
+        key |= (name[i] & 0xFFL) << (i << 3);
+      }
+      return key;
+    }
+
+    int hash = 0;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + name[i];
+    }
+    return (0xFFL << 56) | (hash & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Checks if a name is short enough to be packed into its key, so that equal keys mean equal
+   * names. The empty name is not, as its key would be zero, so it is hashed and kept like a long
+   * name.
+   *
+   * @param length the number of bytes in the name
+   * @return {@code true} if the name is packed into its key, {@code false} otherwise
+   */
+  private static boolean isPacked(final int length) {
+    return length >= 1 && length <= 7;
+  }
+
+  /**
+   * Mixes the bits of a key, so that keys which only differ in a few bits spread across the table.
+   *
+   * @param key the key
+   * @return the mixed bits
+   */
+  private static int mix(final long key) {
+    final long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /**
+   * Keeps the bytes of a name that is too long to pack into its key.
+   *
+   * @param name the bytes of the name
+   * @param length the number of bytes in the name
+   * @return the number of the long name
+   */
+  private int addLongName(final byte[] name, final int length) {
+    if (nameCount == nameStarts.length) {
+      nameStarts = Arrays.copyOf(nameStarts, nameCount * 2);
+      nameLengths = Arrays.copyOf(nameLengths, nameCount * 2);
+    }
+    if (namesLength + length > names.length) {
+      names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + length));
+    }
+    System.arraycopy(name, 0, names, namesLength, length);
+    nameStarts[nameCount] = namesLength;
+    nameLengths[nameCount] = length;
+    namesLength += length;
+    return nameCount++;
+  }
+
+  /** Doubles the number of slots in the name table, putting every entry back in. */
+  private void growTable() {
+    final long[] old = table;
+    table = new long[old.length << 1];
+    final int mask = (table.length >>> 1) - 1;
+    for (int i = 0; i < old.length; i += 2) {
+      if (old[i] != 0) {
+        int slot = mix(old[i]) & mask;
+        while (table[slot << 1] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot << 1] = old[i];
+        table[(slot << 1) + 1] = old[i + 1];
+      }
+    }
+  }
+
+  /**
+   * Skips an attribute list after its opening bracket has been read.
+   *
+   * @throws IOException if the stream cannot be read
+   */
+  private void skipAttributes() throws IOException {
+    int kind;
+    while ((kind = nextToken()) != CLOSE_BRACKET) {
+      if (kind == END) {
+        throw error("expected ']' before the end of the file");
+      }
+    }
+  }
+
+  /**
+   * Reads the next token, leaving the text of an id in the token buffer.
+   *
+   * @return the kind of token
+   * @throws IOException if the stream cannot be read
+   */
+  private int nextToken() throws IOException {
+    if (pushedBack != -1) {
+      final int kind = pushedBack;
+      pushedBack = -1;
+      return kind;
+    }
+
+    int c = skipWhitespaceAndComments();
+    tokenLength = 0;
+    switch (c) {
+      case -1:
+        return END;
+      case '{':
+        return OPEN_BRACE;
+      case '}':
+        return CLOSE_BRACE;
+      case '[':
+        return OPEN_BRACKET;
+      case ']':
+        return CLOSE_BRACKET;
+      case '=':
+        return EQUALS;
+      case ';':
+      case ',':
+        return SEPARATOR;
+      case '"':
+        readQuoted();
+        return ID;
+      case '-':
+        c = peek();
+        if (c == '>') {
+          position++;
+          return ARROW;
+        } else if (c == '-') {
+          throw error("undirected edges are not supported");
+        }
+        // a negative number
+        appendToken('-');
+        readBare();
+        return ID;
+      default:
+        if (!isIdByte(c)) {
+          throw error("unexpected character '" + (char) c + "'");
+        }
+        appendToken(c);
+        readBare();
+        return ID;
+    }
+  }
+
+  /**
+   * Skips whitespace and comments.
+   *
+   * @return the first byte after them, or {@code -1} at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  private int skipWhitespaceAndComments() throws IOException {
+    boolean lineStart = position == 0 && limit == 0;
+    while (true) {
+      int c = nextByte();
+      if (c == '\n') {
+        line++;
+        lineStart = true;
+      } else if (c == ' ' || c == '\t' || c == '\r') {
+        continue;
+      } else if (c == '#' && lineStart) {
+        skipLine();
+      } else if (c == '/' && peek() == '/') {
+        skipLine();
+      } else if (c == '/' && peek() == '*') {
+        position++;
+        skipBlockComment();
+        lineStart = false;
+      } else {
+        return c;
+      }
+    }
+  }
+
+  /**
+   * Skips to the end of the current line, leaving the newline to be read next.
+   *
+   * @throws IOException if the stream cannot be read
+   */
+  private void skipLine() throws IOException {
+    int c;
+    while ((c = peek()) != -1 && c != '\n') {
+      position++;
+    }
+  }
+
+  /**
+   * Skips a block comment after its opening has been read.
+   *
+   * @throws IOException if the stream cannot be read
+   */
+  private void skipBlockComment() throws IOException {
+    int c;
+    while ((c = nextByte()) != -1) {
+      if (c == '\n') {
+        line++;
+      } else if (c == '*' && peek() == '/') {
+        position++;
+        return;
+      }
+    }
+    throw error("unterminated comment");
+  }
+
+  /**
+   * Reads the rest of a bare id into the token buffer.
+   *
+   * @throws IOException if the stream cannot be read
+   */
+  private void readBare() throws IOException {
+    int c;
+    while (isIdByte(c = peek())) {
+      position++;
+      appendToken(c);
+    }
+  }
+
+  /**
+   * Reads a quoted id into the token buffer after its opening quote has been read.
+   *
+   * @throws IOException if the stream cannot be read
+   */
+  private void readQuoted() throws IOException {
+    int c;
+    while ((c = nextByte()) != '"') {
+      if (c == -1) {
+        throw error("unterminated string");
+      }
+      if (c == '\n') {
+        line++;
+      }
+      if (c == '\\' && peek() == '"') {
+        c = nextByte();
+      }
+      appendToken(c);
+    }
+  }
+
+  /**
+   * Checks if a byte can be part of a bare id, which are made of letters, digits, underscores and
+   * dots, or any byte of a multi-byte UTF-8 character.
+   *
+   * @param c the byte
+   * @return {@code true} if the byte can be part of an id, {@code false} otherwise
+   */
+  private static boolean isIdByte(final int c) {
+    return (c >= 'a' && c <= 'z')
+        || (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || c == '_'
+        || c == '.'
+        || c >= 0x80;
+  }
+
+  private void appendToken(final int c) {
+    if (tokenLength == token.length) {
+      token = Arrays.copyOf(token, tokenLength * 2);
+    }
+    token[tokenLength++] = (byte) c;
+  }
+
+  private boolean tokenEquals(final String keyword) {
+    if (tokenLength != keyword.length()) {
+      return false;
+    }
+    for (int i = 0; i < tokenLength; i++) {
+      if (token[i] != keyword.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String tokenString() {
+    return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads the next byte of the stream, refilling the buffer when it runs out.
+   *
+   * @return the byte, or {@code -1} at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  private int nextByte() throws IOException {
+    final int c = peek();
+    if (c != -1) {
+      position++;
+    }
+    return c;
+  }
+
+  /**
+   * Looks at the next byte of the stream without consuming it.
+   *
+   * @return the byte, or {@code -1} at the end of the stream
+   * @throws IOException if the stream cannot be read
+   */
+  private int peek() throws IOException {
+    if (position == limit) {
+      offset += limit;
+      limit = input.read(buffer, 0, buffer.length);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+    return buffer[position] & 0xFF;
+  }
+
+  private IllegalArgumentException error(final String message) {
+    return new IllegalArgumentException("Invalid DOT on line " + line + ": " + message);
+  }
+}
@@ -0,0 +1,117 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import nz.ac.auckland.se281.datastructures.Edge;
+import nz.ac.auckland.se281.datastructures.Graph;
+
+/**
+ * A streaming writer for graphs in the part of the DOT language that {@link DotReader} reads. Each
+ * vertex and edge goes straight into a large buffer as it is written, so a graph of any size can be
+ * written without ever being held in memory. Closing the writer closes the graph and the stream.
+ *
+ * @param <T> The type of each vertex, which is written by its {@code toString}.
+ */
+public class DotWriter<T> implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final BufferedWriter output;
+  private long edgeCount;
+
+  /**
+   * Creates a writer and writes the header of the graph.
+   *
+   * @param output the stream to write the graph to, which does not need to be buffered already
+   * @param name the name of the graph
+   * @throws IOException if the stream cannot be written
+   */
+  public DotWriter(final OutputStream output, final String name) throws IOException {
+    this.output =
+        new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    this.output.write("digraph " + name + " {\n");
+  }
+
+  /**
+   * Writes every vertex and edge of a graph, in the order the graph gives them.
+   *
+   * @param <T> The type of each vertex.
+   * @param graph the graph to write
+   * @param output the stream to write the graph to
+   * @param name the name of the graph
+   * @throws IOException if the stream cannot be written
+   */
+  public static <T extends Comparable<T>> void write(
+      final Graph<T> graph, final OutputStream output, final String name) throws IOException {
+    try (DotWriter<T> writer = new DotWriter<>(output, name)) {
+      for (final T vertex : graph.getVerticies()) {
+        writer.writeVertex(vertex);
+      }
+      for (final Edge<T> edge : graph.getEdges()) {
+        writer.writeEdge(edge);
+      }
+    }
+  }
+
+  /**
+   * Writes a vertex statement, which adds the vertex to the graph even if it has no edges.
+   *
+   * @param vertex the vertex
+   * @throws IOException if the stream cannot be written
+   */
+  public void writeVertex(final T vertex) throws IOException {
+    output.write(' ');
+    output.write(vertex.toString());
+    output.write(";\n");
+  }
+
+  /**
+   * Writes an edge statement.
+   *
+   * @param edge the edge
+   * @throws IOException if the stream cannot be written
+   */
+  public void writeEdge(final Edge<T> edge) throws IOException {
+    writeEdge(edge.getSource(), edge.getDestination());
+  }
+
+  /**
+   * Writes an edge statement, without needing an {@link Edge} for it.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   * @throws IOException if the stream cannot be written
+   */
+  public void writeEdge(final T source, final T destination) throws IOException {
+    output.write(' ');
+    output.write(source.toString());
+    output.write(" -> ");
+    output.write(destination.toString());
+    output.write(";\n");
+    edgeCount++;
+  }
+
+  /**
+   * Gets the number of edge statements written so far, which counts an edge written twice twice.
+   *
+   * @return the number of edge statements
+   */
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Writes the closing brace of the graph and closes the stream.
+   *
+   * @throws IOException if the stream cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    try (output) {
+      output.write("}\n");
+    }
+  }
+}
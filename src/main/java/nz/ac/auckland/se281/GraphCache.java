@@ -0,0 +1,103 @@
+package nz.ac.auckland.se281;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import nz.ac.auckland.se281.datastructures.Graph;
+
+/**
+ * Keeps the graphs that have been loaded in a session, along with every property they have worked
+ * out, so that opening a file again does not read it again. Each graph is kept with the time its
+ * file was last modified, and is only handed out again while the file still has that time.
+ *
+ * <p>The cache holds up to a budget of memory, estimated from the number of verticies and edges of
+ * each graph. Once it is over budget, the graphs that were used least recently are dropped first.
+ */
+public class GraphCache {
+  // rough sizes of a vertex and an edge, covering the vertex and its name, its ids and rows, and
+  // the neighbour entries and edge table slots of an edge
+  private static final long VERTEX_BYTES = 160;
+  private static final long EDGE_BYTES = 40;
+
+  private final long budget;
+  private final Map<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long used;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param budget the number of bytes of graphs the cache can hold
+   */
+  public GraphCache(final long budget) {
+    this.budget = budget;
+  }
+
+  /**
+   * Gets the graph of a file, if it is cached and the file has not been modified since.
+   *
+   * @param file the file
+   * @param modified the time the file was last modified
+   * @return the graph, or {@code null} if there is no graph for the file as it is now
+   */
+  public synchronized Graph<String> get(final Path file, final FileTime modified) {
+    final Entry entry = entries.get(file);
+    if (entry == null) {
+      return null;
+    }
+
+    if (!entry.modified.equals(modified)) {
+      // The file has changed, so its graph will never be used again.
+      entries.remove(file);
+      used -= entry.bytes;
+      return null;
+    }
+    return entry.graph;
+  }
+
+  /**
+   * Caches the graph of a file, replacing any graph it already has, and drops the least recently
+   * used graphs until the cache is within its budget. A graph that is bigger than the whole budget
+   * is not cached, and neither is anything when the budget is zero.
+   *
+   * @param file the file
+   * @param modified the time the file was last modified before the graph was read
+   * @param graph the graph
+   */
+  public synchronized void put(
+      final Path file, final FileTime modified, final Graph<String> graph) {
+    final Entry previous = entries.remove(file);
+    if (previous != null) {
+      used -= previous.bytes;
+    }
+
+    final Entry entry = new Entry(modified, graph);
+    if (budget <= 0 || entry.bytes > budget) {
+      return;
+    }
+    entries.put(file, entry);
+    used += entry.bytes;
+
+    // The map is in access order, so the least recently used graph comes first.
+    final Iterator<Entry> eldest = entries.values().iterator();
+    while (used > budget) {
+      used -= eldest.next().bytes;
+      eldest.remove();
+    }
+  }
+
+  /** A cached graph, with the time its file was modified and an estimate of its size. */
+  private static class Entry {
+    private final FileTime modified;
+    private final Graph<String> graph;
+    private final long bytes;
+
+    private Entry(final FileTime modified, final Graph<String> graph) {
+      this.modified = modified;
+      this.graph = graph;
+      this.bytes =
+          VERTEX_BYTES * graph.getVerticies().size() + EDGE_BYTES * graph.getEdges().size();
+    }
+  }
+}
@@ -1,17 +1,27 @@
 package nz.ac.auckland.se281;
 
-import com.paypal.digraph.parser.GraphEdge;
-import com.paypal.digraph.parser.GraphNode;
-import com.paypal.digraph.parser.GraphParser;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import nz.ac.auckland.se281.datastructures.ClosureTooLargeException;
 import nz.ac.auckland.se281.datastructures.Edge;
 import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphSnapshot;
+import nz.ac.auckland.se281.datastructures.PropertySummary;
 
 /**
  * The calculator that reports properties of graphs to the user.
@@ -21,46 +31,170 @@ import nz.ac.auckland.se281.datastructures.Graph;
 public class GraphCalculator {
   private static final Path TESTCASES = Path.of("testcases");
 
+  private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+  // files at least this large are read on several threads
+  private static final long PARALLEL_THRESHOLD = 8L << 20;
+
+  // the number of threads that large graphs are read, searched and checked on, which can be set
+  // with -Dse281.parallelism=N, where 1 keeps all of the work on the calling thread
+  private static final int PARALLELISM =
+      Math.max(
+          1, Integer.getInteger("se281.parallelism", Runtime.getRuntime().availableProcessors()));
+
+  private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+  // the graphs opened in this session, held in up to a quarter of the heap by default, or in the
+  // number of bytes set with -Dse281.cacheBytes=N, where 0 turns the cache off
+  private static final GraphCache CACHE =
+      new GraphCache(Long.getLong("se281.cacheBytes", Runtime.getRuntime().maxMemory() / 4));
+
   private final Path file;
 
-  private final Collection<GraphNode> verticies;
+  private final PrintStream out;
 
-  private final Collection<GraphEdge> edges;
+  private Graph<String> graph;
 
-  private final Graph<String> graph;
+  // if the graph may be open in other calculators, and so must be copied before it is changed
+  private boolean shared = true;
 
   /**
-   * Creates a new graph calculator.
+   * Creates a new graph calculator that prints to the console.
    *
    * @param filename The name of the test case to read.
    * @throws FileNotFoundException If the file does not exist.
    */
   public GraphCalculator(final String filename) throws FileNotFoundException {
-    file = TESTCASES.resolve(filename);
+    this(filename, System.out);
+  }
 
-    final GraphParser parser = new GraphParser(new FileInputStream(file.toFile()));
+  /**
+   * Creates a new graph calculator that prints to the given stream.
+   *
+   * @param filename The name of the test case to read.
+   * @param out The stream to print to.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public GraphCalculator(final String filename, final PrintStream out)
+      throws FileNotFoundException {
+    this(filename, out, false);
+  }
 
-    this.verticies = parser.getNodes().values();
-    this.edges = parser.getEdges().values();
+  /**
+   * Creates a new graph calculator that prints to the given stream, and that can be kept from
+   * reading files outside the testcases folder, as is done for clients of a {@link GraphServer}.
+   *
+   * @param filename The name of the test case to read.
+   * @param out The stream to print to.
+   * @param confined If the file must be inside the testcases folder.
+   * @throws FileNotFoundException If the file does not exist, or is outside the testcases folder
+   *     when confined.
+   */
+  public GraphCalculator(final String filename, final PrintStream out, final boolean confined)
+      throws FileNotFoundException {
+    if (confined) {
+      // Resolve any '..' first, so a name cannot climb out of the folder.
+      this.file = TESTCASES.resolve(filename).normalize();
+      if (!file.startsWith(TESTCASES)) {
+        throw new FileNotFoundException(filename);
+      }
+    } else {
+      this.file = TESTCASES.resolve(filename);
+    }
+    this.out = out;
+    this.graph = open(file);
+    graph.setCheckPool(PARALLELISM > 1 ? POOL : null);
+  }
 
-    final Set<String> verticies = new HashSet<>();
+  /**
+   * Opens a graph, from the cache if the file has not changed since it was last opened, or else by
+   * loading it and caching it for next time.
+   *
+   * @param file the file to open
+   * @return the graph
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  private static Graph<String> open(final Path file) throws FileNotFoundException {
+    final FileTime modified;
+    try {
+      modified = Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      // Loading reports a missing file.
+      return load(file);
+    }
 
-    for (final GraphNode node : this.verticies) {
-      verticies.add(node.getId());
+    Graph<String> graph = CACHE.get(file, modified);
+    if (graph == null) {
+      graph = load(file);
+      CACHE.put(file, modified, graph);
     }
+    return graph;
+  }
 
-    final Set<Edge<String>> edges = new HashSet<>();
+  /**
+   * Loads a graph, from its binary snapshot if there is one that was written from the file as it
+   * is now, or else by reading the file and then writing a snapshot of it for next time.
+   *
+   * @param file the file to load
+   * @return the graph
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  private static Graph<String> load(final Path file) throws FileNotFoundException {
+    final Path snapshot = file.resolveSibling(file.getFileName() + SNAPSHOT_SUFFIX);
+
+    // The size and modification time are taken before the file is read, so a snapshot written
+    // from a file that changes while it is being read does not match the file afterwards.
+    final BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(file, BasicFileAttributes.class);
+    } catch (IOException e) {
+      throw new FileNotFoundException(file.toString());
+    }
+    if (!attributes.isRegularFile()) {
+      throw new FileNotFoundException(file.toString());
+    }
+    final long size = attributes.size();
+    final FileTime modified = attributes.lastModifiedTime();
+
+    if (Files.isRegularFile(snapshot)) {
+      try {
+        return GraphSnapshot.read(snapshot, size, modified);
+      } catch (IOException | RuntimeException | OutOfMemoryError e) {
+        // A stale or damaged snapshot is deleted, so it is not read again if a new one cannot be
+        // written, and the file is read instead.
+        try {
+          Files.deleteIfExists(snapshot);
+        } catch (IOException ignored) {
+          // The snapshot is replaced below if it can be.
+        }
+      }
+    }
 
-    for (final GraphEdge edge : this.edges) {
-      edges.add(new Edge<>(edge.getNode1().getId(), edge.getNode2().getId()));
+    // Stream the verticies and edges straight into the graph, splitting large files across threads.
+    final Graph<String> graph;
+    try {
+      if (size >= PARALLEL_THRESHOLD) {
+        graph = new ParallelDotReader(file, POOL).read();
+      } else {
+        try (InputStream input = new FileInputStream(file.toFile())) {
+          graph = new DotReader(input).read();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read " + file, e);
     }
 
-    graph = new Graph<>(verticies, edges);
+    try {
+      GraphSnapshot.write(graph, snapshot, size, modified);
+    } catch (IOException e) {
+      // The snapshot only saves time, so the graph can still be used without one.
+    }
+    return graph;
   }
 
   /** Prints the filename of the test case that is loaded. */
   public void printInfo() {
-    MessageCli.INFO.printMessage(TESTCASES.relativize(file).toString());
+    MessageCli.INFO.printMessage(out, TESTCASES.relativize(file).toString());
   }
 
   /** Prints the set of verticies and edges in the graph. */
@@ -68,52 +202,144 @@ public class GraphCalculator {
     final StringBuilder sb = new StringBuilder("Verticies:").append(System.lineSeparator());
 
     // Vertically print each vertex.
-    for (final GraphNode node : verticies) {
-      sb.append("\t").append(node.getId()).append(System.lineSeparator());
+    for (final String vertex : graph.getVerticies()) {
+      sb.append("\t").append(vertex).append(System.lineSeparator());
     }
 
     sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
 
     // Vertically print each edge between verticies.
-    for (final GraphEdge edge : edges) {
+    for (final Edge<String> edge : graph.getEdges()) {
       sb.append("\t")
-          .append(edge.getNode1().getId())
+          .append(edge.getSource())
           .append(" -> ")
-          .append(edge.getNode2().getId())
+          .append(edge.getDestination())
           .append(System.lineSeparator());
     }
 
-    System.out.print(sb.toString());
+    out.print(sb.toString());
+  }
+
+  /**
+   * Adds an edge to the loaded graph, and any of its verticies that are not already in it.
+   *
+   * @param source The source vertex of the edge.
+   * @param destination The destination vertex of the edge.
+   */
+  public void addEdge(final String source, final String destination) {
+    final boolean added =
+        !graph.hasEdge(source, destination) && getOwnGraph().addEdge(source, destination);
+    MessageCli.EDGE_ADDED.printMessage(out, source, destination, prefixNot(added));
+  }
+
+  /**
+   * Removes an edge from the loaded graph.
+   *
+   * @param source The source vertex of the edge.
+   * @param destination The destination vertex of the edge.
+   */
+  public void removeEdge(final String source, final String destination) {
+    final boolean removed =
+        graph.hasEdge(source, destination) && getOwnGraph().removeEdge(source, destination);
+    MessageCli.EDGE_REMOVED.printMessage(out, source, destination, prefixNot(removed));
+  }
+
+  /**
+   * Gets a graph that only this calculator uses, so that it can be changed. The first time, the
+   * graph is copied, leaving the cached graph as it is on disk for any other calculator that has it
+   * open, or that opens the file later.
+   *
+   * @return The graph.
+   */
+  private Graph<String> getOwnGraph() {
+    if (shared) {
+      graph = new Graph<>(graph.getVerticies(), graph.getEdges());
+      graph.setCheckPool(PARALLELISM > 1 ? POOL : null);
+      shared = false;
+    }
+    return graph;
   }
 
   /** Prints the set of verticies in the graph that are root verticies. */
   public void printRoots() {
-    System.out.println(graph.getRoots());
+    out.println(graph.getRoots());
+  }
+
+  /** Prints the lowest vertex of every strongly connected component that is a source. */
+  public void printComponentRoots() {
+    final Object[] roots = graph.getComponentRoots().toArray();
+    Arrays.sort(roots);
+    out.println(Arrays.toString(roots));
+  }
+
+  /** Prints the strongly connected components of the graph in topological order. */
+  public void printComponents() {
+    out.println(graph.getStronglyConnectedComponents());
   }
 
   /** Prints if the set of verticies in the graph exhibit the reflexivity property. */
   public void printReflexitivity() {
-    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(graph.isReflexive()));
+    MessageCli.GRAPH_REFLEXIVE.printMessage(out, prefixNot(graph.isReflexive()));
   }
 
   /** Prints if the set of edges in the graph exhibit the symmetric property. */
   public void printSymmetry() {
-    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(graph.isSymmetric()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(out, prefixNot(graph.isSymmetric()));
   }
 
   /** Prints if the set of edges in the graph exhibit transitivity. */
   public void printTransitivity() {
-    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(graph.isTransitive()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(out, prefixNot(graph.isTransitive()));
   }
 
   /** Prints if the set of edges in the graph exhibit anti-symmetry. */
   public void printAntiSymmetry() {
-    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(graph.isAntiSymmetric()));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(out, prefixNot(graph.isAntiSymmetric()));
   }
 
   /** Prints if the entire graph is considered an equivalence relation. */
   public void printEquivalence() {
-    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph.isEquivalence()));
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(out, prefixNot(graph.isEquivalence()));
+  }
+
+  /**
+   * Prints every relation property of the graph. Reflexivity, symmetry and anti-symmetry are read
+   * from the summary of a single pass over the edges, which runs on the pool side by side with the
+   * checks of transitivity and equivalence, so the report takes about as long as the slowest of
+   * them rather than all of them added up.
+   */
+  public void printAnalysis() {
+    final Future<PropertySummary> summary = POOL.submit(graph::getPropertySummary);
+    final List<Future<Boolean>> results =
+        POOL.invokeAll(List.<Callable<Boolean>>of(graph::isTransitive, graph::isEquivalence));
+    final PropertySummary counts = join(summary);
+
+    MessageCli.GRAPH_REFLEXIVE.printMessage(out, prefixNot(counts.isReflexive()));
+    MessageCli.GRAPH_SYMMETRIC.printMessage(out, prefixNot(counts.isSymmetric()));
+    MessageCli.GRAPH_TRANSITIVE.printMessage(out, prefixNot(join(results.get(0))));
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(out, prefixNot(counts.isAntiSymmetric()));
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(out, prefixNot(join(results.get(1))));
+  }
+
+  /**
+   * Gets the result of a task that has finished, passing on anything it threw.
+   *
+   * @param <T> The type of the result.
+   * @param result The result of the task.
+   * @return The result.
+   */
+  private static <T> T join(final Future<T> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while checking the graph", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("Could not check the graph", e.getCause());
+    }
   }
 
   /**
@@ -124,27 +350,61 @@ public class GraphCalculator {
   public void printEquivalenceClass(final String vertex) {
     final Object[] equivalenceClass = graph.getEquivalenceClass(vertex).toArray();
     Arrays.sort(equivalenceClass);
-    System.out.println(Arrays.toString(equivalenceClass));
+    out.println(Arrays.toString(equivalenceClass));
+  }
+
+  /** Prints every equivalence class in the graph, ordered by their lowest vertex. */
+  public void printEquivalenceClasses() {
+    out.println(graph.getEquivalenceClasses());
+  }
+
+  /** Prints every edge of the transitive closure of the graph. */
+  public void printTransitiveClosure() {
+    try {
+      out.println(new ArrayList<>(graph.transitiveClosure().getEdges()));
+    } catch (ClosureTooLargeException e) {
+      MessageCli.CLOSURE_TOO_LARGE.printMessage(out);
+    }
+  }
+
+  /**
+   * Prints if one vertex can be reached from another by a path of one or more edges.
+   *
+   * @param source The vertex to start from.
+   * @param destination The vertex to reach.
+   */
+  public void printReachability(final String source, final String destination) {
+    try {
+      MessageCli.VERTEX_REACHABLE.printMessage(
+          out, destination, prefixNot(graph.reaches(source, destination)), source);
+    } catch (ClosureTooLargeException e) {
+      MessageCli.CLOSURE_TOO_LARGE.printMessage(out);
+    }
   }
 
   /** Prints the search order of an iterative breadth first search. */
   public void printIterativeBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
+    out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
   }
 
   /** Prints the search order of an iterative depth first search. */
   public void printDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+    out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+  }
+
+  /** Prints the verticies in each level of a parallel breadth first search. */
+  public void printParallelBreadthFirstSearch() {
+    out.println(graph.parallelBreadthFirstSearch(POOL).getLevels());
   }
 
   /** Prints the search order of a recursive breadth first search. */
   public void printRecursiveBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
+    out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
   }
 
   /** Prints the search order of a recursive depth first search. */
   public void printRecursiveDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
+    out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
   }
 
   /**
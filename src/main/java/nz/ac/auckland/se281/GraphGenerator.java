@@ -0,0 +1,188 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes large synthetic test cases in the DOT language, for trying the calculator out on graphs
+ * far bigger than the hand written ones. Every family of graph is generated from a number of
+ * verticies, a size parameter and a seed, so the same arguments always write the same file.
+ * Verticies are named by their number, and edges are streamed through a {@link DotWriter} as they
+ * are generated, so files with many millions of edges can be written in a small, fixed amount of
+ * memory.
+ *
+ * <p>Usage: {@code GraphGenerator <family> <verticies> <parameter> <seed> <file>}, for example
+ * {@code mvn exec:java@generate -Dexec.args="random_dag 1000000 8 281 testcases/dag.txt"}.
+ */
+public class GraphGenerator {
+  /** The families of graph that can be generated. */
+  public enum Family {
+    /**
+     * A random directed acyclic graph, where every vertex has edges to a number of different,
+     * higher numbered verticies given by the parameter, or to all of them if there are fewer.
+     */
+    RANDOM_DAG {
+      @Override
+      void generate(int size, int parameter, SplittableRandom random, DotWriter<Integer> writer)
+          throws IOException {
+        int[] chosen = new int[Math.max(0, parameter)];
+        for (int source = 0; source < size - 1; source++) {
+          int higher = size - 1 - source;
+          int degree = Math.min(parameter, higher);
+
+          // pick distinct targets, retrying the rare repeats, unless every target is needed
+          for (int count = 0; count < degree; ) {
+            int target =
+                degree == higher ? source + 1 + count : source + 1 + random.nextInt(higher);
+            if (!contains(chosen, count, target)) {
+              chosen[count++] = target;
+              writer.writeEdge(source, target);
+            }
+          }
+        }
+      }
+    },
+
+    /**
+     * An equivalence relation with the number of classes given by the parameter, where each vertex
+     * is in the class of its number modulo the number of classes.
+     */
+    EQUIVALENCE {
+      @Override
+      void generate(int size, int parameter, SplittableRandom random, DotWriter<Integer> writer)
+          throws IOException {
+        int classes = Math.max(1, parameter);
+        for (int source = 0; source < size; source++) {
+          for (int destination = source % classes; destination < size; destination += classes) {
+            writer.writeEdge(source, destination);
+          }
+        }
+      }
+    },
+
+    /** A transitive tournament, with an edge from every vertex to every higher numbered vertex. */
+    TRANSITIVE_TOURNAMENT {
+      @Override
+      void generate(int size, int parameter, SplittableRandom random, DotWriter<Integer> writer)
+          throws IOException {
+        for (int source = 0; source < size; source++) {
+          for (int destination = source + 1; destination < size; destination++) {
+            writer.writeEdge(source, destination);
+          }
+        }
+      }
+    },
+
+    /** A single path through every vertex in order. */
+    CHAIN {
+      @Override
+      void generate(int size, int parameter, SplittableRandom random, DotWriter<Integer> writer)
+          throws IOException {
+        for (int vertex = 1; vertex < size; vertex++) {
+          writer.writeEdge(vertex - 1, vertex);
+        }
+      }
+    },
+
+    /**
+     * A number of hubs given by the parameter, the lowest numbered verticies, that each have an
+     * edge to every other vertex, which in turn has an edge back to one hub picked at random.
+     */
+    HUBS {
+      @Override
+      void generate(int size, int parameter, SplittableRandom random, DotWriter<Integer> writer)
+          throws IOException {
+        int hubs = Math.min(size, Math.max(1, parameter));
+        for (int hub = 0; hub < hubs; hub++) {
+          for (int vertex = hubs; vertex < size; vertex++) {
+            writer.writeEdge(hub, vertex);
+          }
+        }
+        for (int vertex = hubs; vertex < size; vertex++) {
+          writer.writeEdge(vertex, random.nextInt(hubs));
+        }
+      }
+    };
+
+    /**
+     * Generates the edges of a graph of this family.
+     *
+     * @param size the number of verticies
+     * @param parameter the size parameter of the family
+     * @param random the source of randomness
+     * @param writer the writer to write each edge to
+     * @throws IOException if the graph cannot be written
+     */
+    abstract void generate(
+        int size, int parameter, SplittableRandom random, DotWriter<Integer> writer)
+        throws IOException;
+
+    /**
+     * Writes a graph of this family, with a vertex statement for every vertex followed by its
+     * edges.
+     *
+     * @param output the stream to write the graph to
+     * @param size the number of verticies
+     * @param parameter the size parameter of the family
+     * @param seed the seed of the random families
+     * @return the number of edges written
+     * @throws IOException if the graph cannot be written
+     */
+    public long write(OutputStream output, int size, int parameter, long seed) throws IOException {
+      try (DotWriter<Integer> writer = new DotWriter<>(output, name().toLowerCase())) {
+        for (int vertex = 0; vertex < size; vertex++) {
+          writer.writeVertex(vertex);
+        }
+        generate(size, parameter, new SplittableRandom(seed), writer);
+        return writer.getEdgeCount();
+      }
+    }
+  }
+
+  /**
+   * Writes a test case.
+   *
+   * @param args the family, the number of verticies, the size parameter, the seed and the file
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length != 5) {
+      System.err.println("Usage: GraphGenerator <family> <verticies> <parameter> <seed> <file>");
+      System.err.println("Families: random_dag, equivalence, transitive_tournament, chain, hubs");
+      System.exit(1);
+      return;
+    }
+
+    final Family family = Family.valueOf(args[0].toUpperCase());
+    final int size = Integer.parseInt(args[1]);
+    final int parameter = Integer.parseInt(args[2]);
+    final long seed = Long.parseLong(args[3]);
+    final Path file = Path.of(args[4]);
+
+    final long edges;
+    try (OutputStream output = Files.newOutputStream(file)) {
+      edges = family.write(output, size, parameter, seed);
+    }
+    System.out.println("Wrote " + size + " verticies and " + edges + " edges to " + file);
+  }
+
+  /**
+   * Checks if a value is among the first values of an array.
+   *
+   * @param values the array
+   * @param count the number of values to look at
+   * @param value the value to look for
+   * @return {@code true} if the value is found, {@code false} otherwise
+   */
+  private static boolean contains(int[] values, int count, int value) {
+    for (int i = 0; i < count; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
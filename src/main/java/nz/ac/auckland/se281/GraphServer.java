@@ -0,0 +1,186 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the graph calculator to other programs over a TCP socket on the loopback interface. Each
+ * connection is a session of its own, with its own open file, that takes the same commands as the
+ * command line, one per line, and gets back exactly what the command line would print, without the
+ * help menu or prompts.
+ *
+ * <p>Every connection is served by a thread of its own, so sessions run side by side. Sessions that
+ * open the same file share the one cached graph, which they only read, and a session that changes
+ * its graph changes a copy of it. Only the output of a session is buffered: its commands are still
+ * read and run one at a time, in the order they were sent, but the results of commands that arrive
+ * together are held back and sent in one write once there are no more commands waiting to be read.
+ *
+ * <p>Each session holds an ordinary platform thread for as long as its client stays connected, so
+ * at most {@value #DEFAULT_MAX_SESSIONS} sessions run at once, or the number set with {@code
+ * -Dse281.maxSessions=N}. A client that connects while that many are running is told the server
+ * is busy and disconnected. Clients can only open files inside the testcases folder.
+ */
+public class GraphServer implements Closeable {
+  /** The port that is used if none is given. */
+  public static final int DEFAULT_PORT = 2810;
+
+  /** The most sessions that run at once if no other number is set. */
+  public static final int DEFAULT_MAX_SESSIONS = 256;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private static final int MAX_SESSIONS =
+      Math.max(1, Integer.getInteger("se281.maxSessions", DEFAULT_MAX_SESSIONS));
+
+  private final ServerSocket socket;
+
+  // a thread for each session, up to the limit, with none kept waiting in a queue
+  private final ExecutorService sessions =
+      new ThreadPoolExecutor(
+          0,
+          MAX_SESSIONS,
+          60,
+          TimeUnit.SECONDS,
+          new SynchronousQueue<>(),
+          task -> {
+            final Thread thread = new Thread(task, "graph-session");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /**
+   * Creates a server listening on a port of the loopback interface.
+   *
+   * @param port The port to listen on, or 0 for any free port.
+   * @throws IOException If the port cannot be listened on.
+   */
+  public GraphServer(final int port) throws IOException {
+    socket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+  }
+
+  /**
+   * Gets the port that the server is listening on.
+   *
+   * @return The port.
+   */
+  public int getPort() {
+    return socket.getLocalPort();
+  }
+
+  /**
+   * Accepts connections and serves each of them on its own thread, until the server is closed.
+   * Connections over the limit of sessions are turned away.
+   *
+   * @throws IOException If a connection cannot be accepted.
+   */
+  public void serve() throws IOException {
+    while (true) {
+      final Socket connection;
+      try {
+        connection = socket.accept();
+      } catch (SocketException e) {
+        if (socket.isClosed()) {
+          return;
+        }
+        throw e;
+      }
+      try {
+        sessions.execute(() -> serve(connection));
+      } catch (RejectedExecutionException e) {
+        reject(connection);
+      }
+    }
+  }
+
+  /**
+   * Tells a client that the server is busy, and closes its connection.
+   *
+   * @param connection The connection.
+   */
+  private static void reject(final Socket connection) {
+    try (connection;
+        PrintStream out =
+            new PrintStream(connection.getOutputStream(), false, StandardCharsets.UTF_8)) {
+      MessageCli.SERVER_BUSY.printMessage(out, String.valueOf(MAX_SESSIONS));
+    } catch (IOException e) {
+      // The client has already gone away.
+    }
+  }
+
+  /**
+   * Runs the commands sent over a connection until the exit command or until it is closed.
+   *
+   * @param connection The connection.
+   */
+  private void serve(final Socket connection) {
+    try (connection;
+        BufferedReader in =
+            new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+        PrintStream out =
+            new PrintStream(
+                new BufferedOutputStream(connection.getOutputStream(), BUFFER_SIZE),
+                false,
+                StandardCharsets.UTF_8)) {
+      final Main session = new Main(null, out, true);
+
+      String line;
+      while ((line = in.readLine()) != null) {
+        line = line.trim();
+        if (!line.isEmpty() && !run(session, line, out)) {
+          break;
+        }
+
+        // Hold the results back while more commands are waiting, to send them all at once.
+        if (!in.ready()) {
+          out.flush();
+        }
+      }
+    } catch (IOException e) {
+      // The client has gone away, which ends its session.
+    }
+  }
+
+  /**
+   * Runs a command of a session, reporting a command that fails rather than ending the session.
+   *
+   * @param session The session.
+   * @param command The command.
+   * @param out The stream of the session.
+   * @return If the session should continue to wait for another command.
+   */
+  private static boolean run(final Main session, final String command, final PrintStream out) {
+    try {
+      return session.processCommand(command);
+    } catch (RuntimeException e) {
+      MessageCli.COMMAND_FAILED.printMessage(out, String.valueOf(e.getMessage()));
+      return true;
+    }
+  }
+
+  /**
+   * Stops accepting connections. Sessions that are already running carry on until their clients
+   * close them.
+   *
+   * @throws IOException If the socket cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    socket.close();
+    sessions.shutdown();
+  }
+}
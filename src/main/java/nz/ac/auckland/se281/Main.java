@@ -1,20 +1,81 @@
 package nz.ac.auckland.se281;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
  * The entry point of the graph calculator command line interface.
  *
+ * <p>Run with {@code --batch} to process a script of commands without the help menu or prompts,
+ * reading the script from the file named after it, or from standard input if there is none. Run
+ * with {@code --server} to serve commands over a local socket instead, on the port named after it
+ * or {@link GraphServer#DEFAULT_PORT} if there is none.
+ *
  * <p>You should not modify this class.
  */
 public class Main {
   private static final String COMMAND_PREFIX = "graph-calculator> ";
 
-  public static void main(final String[] args) {
+  private static final String BATCH_OPTION = "--batch";
+
+  private static final String SERVER_OPTION = "--server";
+
+  // the size of the buffer that holds the output of a batch until it is written out
+  private static final int BATCH_BUFFER_SIZE = 1 << 20;
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+      final BufferedReader script =
+          args.length > 1
+              ? Files.newBufferedReader(Path.of(args[1]))
+              : new BufferedReader(new InputStreamReader(System.in));
+
+      try (script) {
+        runBatch(script);
+      }
+      return;
+    }
+
+    if (args.length > 0 && args[0].equals(SERVER_OPTION)) {
+      final int port = args.length > 1 ? parsePort(args[1]) : GraphServer.DEFAULT_PORT;
+      if (port == -1) {
+        System.err.println("Usage: Main --server [port], where the port is from 0 to 65535");
+        System.exit(1);
+      }
+
+      try (GraphServer server = new GraphServer(port)) {
+        MessageCli.SERVER_STARTED.printMessage(String.valueOf(server.getPort()));
+        server.serve();
+      }
+      return;
+    }
+
     new Main(new Scanner(System.in)).start();
   }
 
+  /**
+   * Reads the port given to the server option.
+   *
+   * @param port The port as it was given.
+   * @return The port, or -1 if it is not a number from 0 to 65535.
+   */
+  private static int parsePort(final String port) {
+    try {
+      final int number = Integer.parseInt(port);
+      return number >= 0 && number <= 65535 ? number : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
   /**
    * The help menu of commands for the graph caluclator command line interface.
    *
@@ -44,6 +105,11 @@ public class Main {
 
   private final Scanner scanner;
 
+  private final PrintStream out;
+
+  // if only files inside the testcases folder can be opened
+  private final boolean confined;
+
   private GraphCalculator calculator;
 
   /**
@@ -52,36 +118,92 @@ public class Main {
    * @param scanner The scanner to read user input from.
    */
   public Main(final Scanner scanner) {
+    this(scanner, System.out);
+  }
+
+  /**
+   * Create a new command line interface that prints to the given stream.
+   *
+   * @param scanner The scanner to read user input from, or {@code null} if commands are only given
+   *     to {@link #processCommand(String)}.
+   * @param out The stream to print to.
+   */
+  Main(final Scanner scanner, final PrintStream out) {
+    this(scanner, out, false);
+  }
+
+  /**
+   * Create a new command line interface that prints to the given stream, and that can be kept from
+   * opening files outside the testcases folder.
+   *
+   * @param scanner The scanner to read user input from, or {@code null} if commands are only given
+   *     to {@link #processCommand(String)}.
+   * @param out The stream to print to.
+   * @param confined If only files inside the testcases folder can be opened.
+   */
+  Main(final Scanner scanner, final PrintStream out, final boolean confined) {
     this.scanner = scanner;
+    this.out = out;
+    this.confined = confined;
   }
 
   /** Process commands from the user for the graph calculator command line interface. */
   public void start() {
-    System.out.println(help());
+    out.println(help());
 
     String command;
 
     // Prompt and process commands until the exit command.
     do {
-      System.out.print(COMMAND_PREFIX);
+      out.print(COMMAND_PREFIX);
       command = scanner.nextLine().trim();
     } while (processCommand(command));
   }
 
+  /**
+   * Process a script of commands, one per line, until the exit command or the end of the script.
+   * Blank lines and lines starting with '#' are skipped. Nothing is printed other than the results
+   * of the commands, which are held in one large buffer that is only written out when it fills up
+   * or the script ends, rather than on every line.
+   *
+   * @param script The script to read commands from.
+   * @throws IOException If the script cannot be read.
+   */
+  public static void runBatch(final BufferedReader script) throws IOException {
+    final PrintStream output =
+        new PrintStream(new BufferedOutputStream(System.out, BATCH_BUFFER_SIZE), false);
+    final Main main = new Main(null, output);
+
+    try {
+      String line;
+      while ((line = script.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (!main.processCommand(line)) {
+          break;
+        }
+      }
+    } finally {
+      output.flush();
+    }
+  }
+
   /**
    * Execute a command entered by the user and determine if more commands are expected.
    *
    * @param input The command entered by the user.
    * @return If the program should continue to wait for another command.
    */
-  private boolean processCommand(String input) {
+  boolean processCommand(String input) {
     // Remove whitespace at the beginning and end of the input.
     input = input.trim();
 
     final String[] args = input.split(" ");
 
     // Allow any case, and dashes to be used instead of underscores.
-    final String commandStr = args[0].toUpperCase().replaceAll("-", "_");
+    final String commandStr = args[0].toUpperCase().replace('-', '_');
 
     final Command command;
 
@@ -89,7 +211,7 @@ public class Main {
       // Command names correspond to the enum names.
       command = Command.valueOf(commandStr);
     } catch (final Exception e) {
-      MessageCli.COMMAND_NOT_FOUND.printMessage(commandStr);
+      MessageCli.COMMAND_NOT_FOUND.printMessage(out, commandStr);
       return true;
     }
 
@@ -97,7 +219,7 @@ public class Main {
     if (!checkArgs(command, args)) {
       final String numCommandArgs = String.valueOf(command.getNumArgs());
       final String plural = command.getNumArgs() > 1 ? "s" : "";
-      MessageCli.WRONG_ARGUMENT_COUNT.printMessage(numCommandArgs, plural, commandStr);
+      MessageCli.WRONG_ARGUMENT_COUNT.printMessage(out, numCommandArgs, plural, commandStr);
       return true;
     }
 
@@ -108,7 +230,7 @@ public class Main {
         && command != Command.OPEN_FILE
         && command != Command.EXIT
         && command != Command.HELP) {
-      MessageCli.FILE_NOT_OPEN.printMessage();
+      MessageCli.FILE_NOT_OPEN.printMessage(out);
       return true;
     }
 
@@ -117,10 +239,13 @@ public class Main {
         final String filename = args[1];
 
         try {
-          calculator = new GraphCalculator(filename);
-          MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(filename);
+          calculator = new GraphCalculator(filename, out, confined);
+          MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(out, filename);
         } catch (FileNotFoundException e) {
-          MessageCli.FILE_NOT_FOUND.printMessage(filename);
+          MessageCli.FILE_NOT_FOUND.printMessage(out, filename);
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+          // The file is not a graph, so the file that was open before stays open.
+          MessageCli.FILE_NOT_READ.printMessage(out, filename, e.getMessage());
         }
         break;
       case INFO:
@@ -129,9 +254,18 @@ public class Main {
       case LIST_VERTICIES_EDGES:
         calculator.printVerticiesEdges();
         break;
+      case ADD_EDGE:
+        calculator.addEdge(args[1], args[2]);
+        break;
+      case REMOVE_EDGE:
+        calculator.removeEdge(args[1], args[2]);
+        break;
       case LIST_ROOT_VERTICIES:
         calculator.printRoots();
         break;
+      case LIST_COMPONENT_ROOTS:
+        calculator.printComponentRoots();
+        break;
       case CHECK_REFLEXIVITY:
         calculator.printReflexitivity();
         break;
@@ -147,15 +281,33 @@ public class Main {
       case CHECK_EQUIVALENCE:
         calculator.printEquivalence();
         break;
+      case ANALYZE:
+        calculator.printAnalysis();
+        break;
       case COMPUTE_EQUIVALENCE:
         calculator.printEquivalenceClass(args[1]);
         break;
+      case COMPUTE_ALL_EQUIVALENCE:
+        calculator.printEquivalenceClasses();
+        break;
+      case COMPUTE_CLOSURE:
+        calculator.printTransitiveClosure();
+        break;
+      case COMPUTE_COMPONENTS:
+        calculator.printComponents();
+        break;
+      case CHECK_REACHABILITY:
+        calculator.printReachability(args[1], args[2]);
+        break;
       case GRAPH_SEARCH_IBFS:
         calculator.printIterativeBreadthFirstSearch();
         break;
       case GRAPH_SEARCH_IDFS:
         calculator.printDepthFirstSearch();
         break;
+      case GRAPH_SEARCH_PBFS:
+        calculator.printParallelBreadthFirstSearch();
+        break;
       case GRAPH_SEARCH_RBFS:
         calculator.printRecursiveBreadthFirstSearch();
         break;
@@ -163,12 +315,12 @@ public class Main {
         calculator.printRecursiveDepthFirstSearch();
         break;
       case EXIT:
-        MessageCli.END.printMessage();
+        MessageCli.END.printMessage(out);
 
         // Signal that the program should exit.
         return false;
       case HELP:
-        System.out.println(help());
+        out.println(help());
         break;
     }
 
@@ -1,5 +1,7 @@
 package nz.ac.auckland.se281;
 
+import java.io.PrintStream;
+
 /**
  * Templates of messages that can be printed to the CLI.
  *
@@ -15,6 +17,7 @@ public enum MessageCli {
   OPENED_FILE_SUCCESSFULLY("Successfully opened graph from file %s"),
   FILE_NOT_OPEN("Error: no valid file open"),
   FILE_NOT_FOUND("Error: file '%s' not found in `testcases` folder"),
+  FILE_NOT_READ("Error: file '%s' could not be read as a graph: %s"),
   INFO("File name: %s"),
 
   GRAPH_REFLEXIVE("The graph is %sreflexive"),
@@ -22,6 +25,13 @@ public enum MessageCli {
   GRAPH_ANTI_SYMMETRIC("The graph is %santisymmetric"),
   GRAPH_EQUIVALENCE("The graph is %san equivalence relation"),
   GRAPH_TRANSITIVE("The graph is %stransitive"),
+  VERTEX_REACHABLE("Vertex %s is %sreachable from vertex %s"),
+  EDGE_ADDED("Edge %s -> %s was %sadded"),
+  EDGE_REMOVED("Edge %s -> %s was %sremoved"),
+  CLOSURE_TOO_LARGE("Error: the graph is too large to compute its transitive closure"),
+  COMMAND_FAILED("Error: the command failed: %s"),
+  SERVER_STARTED("Serving graphs on port %s"),
+  SERVER_BUSY("Error: the server is already running its limit of %s sessions, try again later"),
 
   END("You closed the terminal. Goodbye.");
 
@@ -44,13 +54,21 @@ public enum MessageCli {
    * @return The filled message.
    */
   public String getMessage(final String... args) {
-    String tmpMessage = msg;
+    // Fill the template in one pass, rather than searching the whole message again for each
+    // argument, so that printing stays cheap when many commands are run in a batch.
+    final StringBuilder sb = new StringBuilder(msg.length() + 16 * args.length);
+    int start = 0;
 
     for (final String arg : args) {
-      tmpMessage = tmpMessage.replaceFirst("%s", arg);
+      final int placeholder = msg.indexOf("%s", start);
+      if (placeholder == -1) {
+        break;
+      }
+      sb.append(msg, start, placeholder).append(arg);
+      start = placeholder + 2;
     }
 
-    return tmpMessage;
+    return sb.append(msg, start, msg.length()).toString();
   }
 
   /**
@@ -59,6 +77,17 @@ public enum MessageCli {
    * @param args The arguments to fill in the template.
    */
   public void printMessage(final String... args) {
-    System.out.println(getMessage(args));
+    printMessage(System.out, args);
+  }
+
+  /**
+   * Print the message to the given stream after filling the template using {@link
+   * #getMessage(String...)}.
+   *
+   * @param out The stream to print to.
+   * @param args The arguments to fill in the template.
+   */
+  public void printMessage(final PrintStream out, final String... args) {
+    out.println(getMessage(args));
   }
 }
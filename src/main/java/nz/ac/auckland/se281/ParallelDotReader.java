@@ -0,0 +1,244 @@
+package nz.ac.auckland.se281;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import nz.ac.auckland.se281.datastructures.Graph;
+import nz.ac.auckland.se281.datastructures.GraphBuilder;
+
+/**
+ * Reads a large DOT file on several threads. The body of the graph is split into chunks that end
+ * just after a {@code ;} at the end of a line, each chunk is read by its own {@link DotReader} into
+ * its own {@link GraphBuilder}, and the builders are then merged in file order, so the graph is the
+ * same as if the file had been read from start to end.
+ *
+ * <p>A statement, comment or string that spans a chunk boundary leaves the chunk before it
+ * unfinished, which the reader of that chunk reports as an error. If any chunk cannot be read, the
+ * whole file is read again by a single {@link DotReader}, so that odd files still give the same
+ * graph, or the same error, as they would otherwise.
+ */
+public class ParallelDotReader {
+  // the smallest chunk that is worth handing to a thread of its own
+  private static final long MIN_CHUNK_SIZE = 1 << 20;
+  private static final int SCAN_BUFFER_SIZE = 1 << 16;
+
+  private final Path file;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a reader for the given file, using the common pool.
+   *
+   * @param file the file to read the graph from
+   */
+  public ParallelDotReader(final Path file) {
+    this(file, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a reader for the given file.
+   *
+   * @param file the file to read the graph from
+   * @param pool the pool to read the chunks on
+   */
+  public ParallelDotReader(final Path file, final ForkJoinPool pool) {
+    this.file = file;
+    this.pool = pool;
+  }
+
+  /**
+   * Reads the graph from the file.
+   *
+   * @return the graph
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a graph in the supported part of DOT
+   */
+  public Graph<String> read() throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final long size = channel.size();
+
+      final DotReader header = new DotReader(new RegionInputStream(channel, 0, size));
+      header.readHeader();
+      final long start = header.getPosition();
+
+      final List<Long> boundaries = findBoundaries(channel, start, size);
+      if (boundaries.size() <= 2) {
+        return readSequentially(channel);
+      }
+
+      final List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+      for (int i = 0; i + 1 < boundaries.size(); i++) {
+        final long from = boundaries.get(i);
+        final long to = boundaries.get(i + 1);
+        tasks.add(pool.submit(() -> readChunk(channel, from, to)));
+      }
+
+      // wait for every chunk before merging, so none is still reading when the file is closed
+      final List<Chunk> chunks = new ArrayList<>();
+      boolean failed = false;
+      for (final ForkJoinTask<Chunk> task : tasks) {
+        try {
+          chunks.add(task.join());
+        } catch (IllegalArgumentException e) {
+          failed = true;
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+      }
+
+      // only the last chunk may hold the closing brace of the graph
+      for (int i = 0; !failed && i < chunks.size(); i++) {
+        failed = chunks.get(i).closed != (i == chunks.size() - 1);
+      }
+      if (failed) {
+        return readSequentially(channel);
+      }
+
+      final GraphBuilder<String> builder = chunks.get(0).builder;
+      for (int i = 1; i < chunks.size(); i++) {
+        builder.addAll(chunks.get(i).builder);
+      }
+      return builder.build();
+    }
+  }
+
+  private static Graph<String> readSequentially(final FileChannel channel) throws IOException {
+    return new DotReader(new RegionInputStream(channel, 0, channel.size())).read();
+  }
+
+  /**
+   * Reads the statements in one chunk of the file.
+   *
+   * @param channel the file
+   * @param from the position of the first byte of the chunk
+   * @param to the position after the last byte of the chunk
+   * @return the verticies and edges of the chunk
+   */
+  private static Chunk readChunk(final FileChannel channel, final long from, final long to) {
+    final GraphBuilder<String> builder = new GraphBuilder<>();
+    try {
+      final DotReader reader = new DotReader(new RegionInputStream(channel, from, to));
+      return new Chunk(builder, reader.readBody(builder));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Splits the body of the graph into roughly even chunks, one for each thread of the pool, moving
+   * each split forward to just after the next {@code ;} that ends a line.
+   *
+   * @param channel the file
+   * @param start the position of the start of the body
+   * @param size the size of the file
+   * @return the start of each chunk followed by the end of the last one
+   * @throws IOException if the file cannot be read
+   */
+  private List<Long> findBoundaries(final FileChannel channel, final long start, final long size)
+      throws IOException {
+    final long body = size - start;
+    final int count = (int) Math.min(pool.getParallelism(), body / MIN_CHUNK_SIZE);
+
+    final List<Long> boundaries = new ArrayList<>();
+    boundaries.add(start);
+    final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    for (int i = 1; i < count; i++) {
+      final long target = Math.max(start + body / count * i, boundaries.get(boundaries.size() - 1));
+      final long boundary = findStatementEnd(channel, buffer, target, size);
+      if (boundary < 0) {
+        break;
+      }
+      if (boundary > boundaries.get(boundaries.size() - 1)) {
+        boundaries.add(boundary);
+      }
+    }
+    boundaries.add(size);
+    return boundaries;
+  }
+
+  /**
+   * Finds the position just after the first {@code ;} followed by a new line at or after the given
+   * position.
+   *
+   * @param channel the file
+   * @param buffer a buffer to read the file through
+   * @param from the position to start looking from
+   * @param size the size of the file
+   * @return the position after the new line, or -1 if there is none
+   * @throws IOException if the file cannot be read
+   */
+  private static long findStatementEnd(
+      final FileChannel channel, final ByteBuffer buffer, long from, final long size)
+      throws IOException {
+    byte previous = 0;
+    while (from < size) {
+      buffer.clear();
+      final int read = channel.read(buffer, from);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        final byte c = buffer.get(i);
+        if (c == '\n' && previous == ';') {
+          return from + i + 1;
+        }
+        previous = c;
+      }
+      from += read;
+    }
+    return -1;
+  }
+
+  /** The verticies and edges read from one chunk of the file. */
+  private static class Chunk {
+    private final GraphBuilder<String> builder;
+    private final boolean closed;
+
+    private Chunk(final GraphBuilder<String> builder, final boolean closed) {
+      this.builder = builder;
+      this.closed = closed;
+    }
+  }
+
+  /**
+   * A stream over one region of a file. It reads with positional reads, so several streams can read
+   * the same channel at once.
+   */
+  private static class RegionInputStream extends InputStream {
+    private final FileChannel channel;
+    private long position;
+    private final long end;
+
+    private RegionInputStream(final FileChannel channel, final long position, final long end) {
+      this.channel = channel;
+      this.position = position;
+      this.end = end;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final byte[] single = new byte[1];
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+      if (position >= end) {
+        return -1;
+      }
+      final int wanted = (int) Math.min(length, end - position);
+      final int read = channel.read(ByteBuffer.wrap(bytes, offset, wanted), position);
+      if (read > 0) {
+        position += read;
+      }
+      return read;
+    }
+  }
+}
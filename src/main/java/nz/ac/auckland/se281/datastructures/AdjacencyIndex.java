@@ -0,0 +1,635 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An index of the outgoing and incoming neighbours of every vertex in a graph, built once from the
+ * set of edges so that neighbour queries do not need to scan every edge.
+ *
+ * <p>Each vertex is interned to a dense integer id between {@code 0} and {@code size() - 1}. Ids
+ * are handed out in the natural ordering of the verticies, so comparing two ids gives the same
+ * result as comparing the verticies they stand for. The neighbours are stored in compressed sparse
+ * row form: the outgoing neighbours of vertex {@code v} are {@code getOutTarget(i)} for every
+ * {@code i} from {@code getOutStart(v)} up to (but excluding) {@code getOutEnd(v)}, and likewise
+ * for the incoming neighbours. Each row is sorted in ascending order of id, and so in the order of
+ * the verticies, which lets the searches walk neighbours in order (or in reverse) without sorting.
+ *
+ * <p>Every edge is also kept in an open-addressing hash table of packed {@code (source,
+ * destination)} id pairs, so {@link #hasEdge(int, int)} answers in constant time. Duplicate edges
+ * are dropped while the table is filled.
+ *
+ * <p>Edges can be added and removed after the index is built, which updates the two rows and the
+ * table in place. Adding a vertex that sorts after every other one is just as cheap, but any other
+ * vertex change has to renumber the verticies after it, which touches every edge.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class AdjacencyIndex<T extends Comparable<T>> {
+  // the key of an empty slot of the edge table
+  static final long EMPTY = -1L;
+
+  // the most slots the edge table can have, and so the most edges it can hold while half full
+  private static final int MAX_TABLE_CAPACITY = 1 << 30;
+  private static final int MAX_EDGE_COUNT = MAX_TABLE_CAPACITY / 2;
+
+  private final List<T> verticies;
+  private final Map<T, Integer> ids;
+
+  private long[] edgeTable;
+  private int edgeCount;
+
+  private final AdjacencyRows out;
+  private final AdjacencyRows in;
+
+  /**
+   * Builds the index from verticies and edges that have been given ids in the order they were
+   * added, as done by {@link GraphBuilder}. The verticies are given new ids in their natural order,
+   * and the arrays and map passed in are reused and changed.
+   *
+   * @param verticies the verticies, in the order they were added
+   * @param ids the id of each vertex, in the order they were added
+   * @param sources the id of the source of each edge
+   * @param destinations the id of the destination of each edge
+   * @param edgeCount the number of edges in the arrays
+   */
+  AdjacencyIndex(
+      List<T> verticies, Map<T, Integer> ids, int[] sources, int[] destinations, int edgeCount) {
+    // hand out ids again in ascending order of the verticies
+    this.verticies = new ArrayList<>(verticies);
+    this.verticies.sort(null);
+    this.ids = ids;
+
+    int[] renumbered = new int[size()];
+    for (int id = 0; id < size(); id++) {
+      renumbered[ids.put(this.verticies.get(id), id)] = id;
+    }
+
+    this.edgeTable = new long[tableCapacity(edgeCount)];
+    Arrays.fill(edgeTable, EMPTY);
+
+    int distinct = 0;
+    for (int edge = 0; edge < edgeCount; edge++) {
+      int source = renumbered[sources[edge]];
+      int destination = renumbered[destinations[edge]];
+      if (insertEdge(source, destination)) {
+        sources[distinct] = source;
+        destinations[distinct] = destination;
+        distinct++;
+      }
+    }
+    this.edgeCount = distinct;
+    sources = Arrays.copyOf(sources, distinct);
+    destinations = Arrays.copyOf(destinations, distinct);
+
+    // each counting sort is stable, so grouping the edges by destination before grouping them by
+    // source leaves every row of one direction sorted, and the same again for the other direction
+    int[] inOffsets = new int[size() + 1];
+    int[] inTargets = new int[distinct];
+    fill(destinations, sources, inOffsets, inTargets);
+    expand(inOffsets, inTargets, destinations, sources);
+
+    int[] outOffsets = new int[size() + 1];
+    int[] outTargets = new int[distinct];
+    fill(sources, destinations, outOffsets, outTargets);
+    expand(outOffsets, outTargets, sources, destinations);
+
+    Arrays.fill(inOffsets, 0);
+    fill(destinations, sources, inOffsets, inTargets);
+
+    this.out = new AdjacencyRows(outOffsets, outTargets);
+    this.in = new AdjacencyRows(inOffsets, inTargets);
+  }
+
+  /**
+   * Writes the edges of one direction of the compressed rows back out as pairs, in row order.
+   *
+   * @param offsets the row offsets
+   * @param targets the columns, grouped by row
+   * @param rows the row of each edge to fill
+   * @param columns the column of each edge to fill
+   */
+  private static void expand(int[] offsets, int[] targets, int[] rows, int[] columns) {
+    for (int row = 0; row < offsets.length - 1; row++) {
+      for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+        rows[i] = row;
+        columns[i] = targets[i];
+      }
+    }
+  }
+
+  /**
+   * Creates an index from arrays that were built by another index, as done when a {@link
+   * GraphSnapshot} is loaded. The arrays are used as they are, without being checked or copied.
+   *
+   * @param verticies the verticies, in ascending order
+   * @param edgeTable the edge table
+   * @param outOffsets the outgoing row offsets
+   * @param outTargets the outgoing rows
+   * @param inOffsets the incoming row offsets
+   * @param inTargets the incoming rows
+   */
+  AdjacencyIndex(
+      List<T> verticies,
+      long[] edgeTable,
+      int[] outOffsets,
+      int[] outTargets,
+      int[] inOffsets,
+      int[] inTargets) {
+    this.verticies = verticies;
+    this.ids = new HashMap<>();
+    for (int id = 0; id < verticies.size(); id++) {
+      ids.put(verticies.get(id), id);
+    }
+    this.edgeTable = edgeTable;
+    this.edgeCount = outTargets.length;
+    this.out = new AdjacencyRows(outOffsets, outTargets);
+    this.in = new AdjacencyRows(inOffsets, inTargets);
+  }
+
+  long[] getEdgeTable() {
+    return edgeTable;
+  }
+
+  int[] getOutOffsets() {
+    return out.getOffsets();
+  }
+
+  int[] getOutTargets() {
+    return out.getTargets();
+  }
+
+  int[] getInOffsets() {
+    return in.getOffsets();
+  }
+
+  int[] getInTargets() {
+    return in.getTargets();
+  }
+
+  /**
+   * Packs an edge into a single key for the edge table.
+   *
+   * @param source the id of the source vertex
+   * @param destination the id of the destination vertex
+   * @return the packed key, which is never {@link #EMPTY}
+   */
+  private static long pack(int source, int destination) {
+    return ((long) source << 32) | (destination & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Gets the number of slots of an edge table for a number of edges, which keeps the table at most
+   * half full so probe sequences stay short.
+   *
+   * @param edgeCount the number of edges
+   * @return the number of slots, a power of two
+   * @throws IllegalStateException if there are too many edges for any edge table
+   */
+  private static int tableCapacity(int edgeCount) {
+    if (edgeCount > MAX_EDGE_COUNT) {
+      throw new IllegalStateException(
+          "Cannot index " + edgeCount + " edges, the most there can be is " + MAX_EDGE_COUNT);
+    }
+    long capacity = (long) Integer.highestOneBit(Math.max(edgeCount, 1)) << 2;
+    return (int) Math.min(capacity, MAX_TABLE_CAPACITY);
+  }
+
+  /**
+   * Finds the slot of the edge table that holds the given key, or the empty slot it would go in.
+   *
+   * @param key the packed edge
+   * @return the slot of the key
+   */
+  private int findSlot(long key) {
+    int mask = edgeTable.length - 1;
+    int slot = home(key);
+    while (edgeTable[slot] != EMPTY && edgeTable[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Gets the slot of the edge table that a key is first looked for in.
+   *
+   * @param key the packed edge
+   * @return the home slot of the key
+   */
+  private int home(long key) {
+    // spread the bits of both ids across the slot index
+    long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed >>> 32) & (edgeTable.length - 1);
+  }
+
+  /**
+   * Removes an edge from the edge table. Later keys in the same run are shifted back into the gap,
+   * so that no probe sequence is broken and no deleted markers are needed.
+   *
+   * @param source the id of the source vertex
+   * @param destination the id of the destination vertex
+   * @return {@code true} if the edge was removed, {@code false} if it was not present
+   */
+  private boolean deleteEdge(int source, int destination) {
+    long key = pack(source, destination);
+    int hole = findSlot(key);
+    if (edgeTable[hole] != key) {
+      return false;
+    }
+
+    int mask = edgeTable.length - 1;
+    for (int next = (hole + 1) & mask; edgeTable[next] != EMPTY; next = (next + 1) & mask) {
+      // a key can fill the hole if the hole is between its home and where it is now
+      int home = home(edgeTable[next]);
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        edgeTable[hole] = edgeTable[next];
+        hole = next;
+      }
+    }
+    edgeTable[hole] = EMPTY;
+    return true;
+  }
+
+  /**
+   * Refills the edge table from the outgoing rows, as needed when it grows or the ids change.
+   *
+   * @param capacity the number of slots, a power of two
+   */
+  private void rehash(int capacity) {
+    edgeTable = new long[capacity];
+    Arrays.fill(edgeTable, EMPTY);
+    for (int source = 0; source < size(); source++) {
+      for (int i = getOutStart(source); i < getOutEnd(source); i++) {
+        insertEdge(source, getOutTarget(i));
+      }
+    }
+  }
+
+  /**
+   * Adds a vertex to the index, if it is not already in it. The verticies after it in their natural
+   * order are given ids one higher.
+   *
+   * @param vertex the vertex to add
+   * @return {@code true} if the vertex was added, {@code false} if it was already present
+   */
+  boolean addVertex(T vertex) {
+    if (ids.containsKey(vertex)) {
+      return false;
+    }
+
+    int id = -Collections.binarySearch(verticies, vertex) - 1;
+    verticies.add(id, vertex);
+    for (int later = id; later < size(); later++) {
+      ids.put(verticies.get(later), later);
+    }
+    out.insertRow(id);
+    in.insertRow(id);
+    if (id < size() - 1) {
+      rehash(edgeTable.length);
+    }
+    return true;
+  }
+
+  /**
+   * Removes a vertex that has no edges from the index. The verticies after it in their natural
+   * order are given ids one lower.
+   *
+   * @param vertex the vertex to remove
+   * @return {@code true} if the vertex was removed, {@code false} if it was not present
+   * @throws IllegalStateException if the vertex still has edges
+   */
+  boolean removeVertex(T vertex) {
+    Integer id = ids.get(vertex);
+    if (id == null) {
+      return false;
+    }
+    if (getOutDegree(id) != 0 || getInDegree(id) != 0) {
+      throw new IllegalStateException("Cannot remove " + vertex + " while it has edges");
+    }
+
+    ids.remove(vertex);
+    verticies.remove((int) id);
+    for (int later = id; later < size(); later++) {
+      ids.put(verticies.get(later), later);
+    }
+    out.removeRow(id);
+    in.removeRow(id);
+    if (id < size()) {
+      rehash(edgeTable.length);
+    }
+    return true;
+  }
+
+  /**
+   * Adds an edge between two verticies in the index.
+   *
+   * @param source the id of the source vertex
+   * @param destination the id of the destination vertex
+   * @return {@code true} if the edge was added, {@code false} if it was already present
+   * @throws IllegalStateException if the index already holds as many edges as it can
+   */
+  boolean addEdge(int source, int destination) {
+    if (edgeCount == MAX_EDGE_COUNT && !hasEdge(source, destination)) {
+      throw new IllegalStateException(
+          "Cannot add another edge, the most there can be is " + MAX_EDGE_COUNT);
+    }
+    if (!insertEdge(source, destination)) {
+      return false;
+    }
+
+    edgeCount++;
+    out.insert(source, destination);
+    in.insert(destination, source);
+
+    // keep the table at most half full, which never needs more than the largest table
+    if (edgeCount > edgeTable.length / 2) {
+      rehash(edgeTable.length * 2);
+    }
+    return true;
+  }
+
+  /**
+   * Removes an edge between two verticies in the index.
+   *
+   * @param source the id of the source vertex
+   * @param destination the id of the destination vertex
+   * @return {@code true} if the edge was removed, {@code false} if it was not present
+   */
+  boolean removeEdge(int source, int destination) {
+    if (!deleteEdge(source, destination)) {
+      return false;
+    }
+
+    edgeCount--;
+    out.remove(source, destination);
+    in.remove(destination, source);
+    return true;
+  }
+
+  /**
+   * Adds an edge to the edge table.
+   *
+   * @param source the id of the source vertex
+   * @param destination the id of the destination vertex
+   * @return {@code true} if the edge was added, {@code false} if it was already present
+   */
+  private boolean insertEdge(int source, int destination) {
+    long key = pack(source, destination);
+    int slot = findSlot(key);
+    if (edgeTable[slot] == key) {
+      return false;
+    }
+    edgeTable[slot] = key;
+    return true;
+  }
+
+  /**
+   * Fills one direction of the compressed rows with a counting sort of the edges by their row.
+   *
+   * @param rows the row of each edge
+   * @param columns the column of each edge
+   * @param offsets the row offsets to fill, one longer than the number of verticies
+   * @param targets the columns to fill, grouped by row
+   */
+  private static void fill(int[] rows, int[] columns, int[] offsets, int[] targets) {
+    for (int row : rows) {
+      offsets[row + 1]++;
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      offsets[i] += offsets[i - 1];
+    }
+
+    int[] next = new int[offsets.length - 1];
+    System.arraycopy(offsets, 0, next, 0, next.length);
+    for (int i = 0; i < rows.length; i++) {
+      targets[next[rows[i]]++] = columns[i];
+    }
+  }
+
+  /**
+   * Gets the number of interned verticies.
+   *
+   * @return the number of verticies
+   */
+  public int size() {
+    return verticies.size();
+  }
+
+  /**
+   * Gets the number of indexed edges.
+   *
+   * @return the number of edges
+   */
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Gets the id of the given vertex.
+   *
+   * @param vertex the vertex to look up
+   * @return the id of the vertex, or {@code -1} if the vertex is not in the graph
+   */
+  public int getId(T vertex) {
+    Integer id = ids.get(vertex);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Gets the vertex with the given id.
+   *
+   * @param id the id of the vertex
+   * @return the vertex
+   */
+  public T getVertex(int id) {
+    return verticies.get(id);
+  }
+
+  /**
+   * Gets every interned vertex, in ascending order of their ids.
+   *
+   * @return an unmodifiable list of the verticies
+   */
+  public List<T> getVerticies() {
+    return Collections.unmodifiableList(verticies);
+  }
+
+  /**
+   * Gets a read-only set view of every interned vertex, iterating in ascending order.
+   *
+   * @return the set of verticies
+   */
+  public Set<T> getVertexSet() {
+    return new AbstractSet<T>() {
+      @Override
+      public Iterator<T> iterator() {
+        return getVerticies().iterator();
+      }
+
+      @Override
+      public int size() {
+        return AdjacencyIndex.this.size();
+      }
+
+      @Override
+      public boolean contains(Object vertex) {
+        return ids.containsKey(vertex);
+      }
+    };
+  }
+
+  /**
+   * Gets a read-only set view of every indexed edge, iterating in ascending order of source and
+   * then destination. Each edge object is created as it is iterated over.
+   *
+   * @return the set of edges
+   */
+  public Set<Edge<T>> getEdgeSet() {
+    return new AbstractSet<Edge<T>>() {
+      @Override
+      public Iterator<Edge<T>> iterator() {
+        return new Iterator<Edge<T>>() {
+          private int source = -1;
+          private int position = 0;
+          private int end = 0;
+          private int returned = 0;
+
+          @Override
+          public boolean hasNext() {
+            return returned < edgeCount;
+          }
+
+          @Override
+          public Edge<T> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            while (position == end) {
+              source++;
+              position = getOutStart(source);
+              end = getOutEnd(source);
+            }
+            returned++;
+            return new Edge<>(getVertex(source), getVertex(getOutTarget(position++)));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return getEdgeCount();
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        if (!(obj instanceof Edge)) {
+          return false;
+        }
+        Edge<?> edge = (Edge<?>) obj;
+        Integer source = ids.get(edge.getSource());
+        Integer destination = ids.get(edge.getDestination());
+        return source != null && destination != null && hasEdge(source, destination);
+      }
+    };
+  }
+
+  /**
+   * Gets the position of the first outgoing neighbour of the given vertex.
+   *
+   * @param id the id of the source vertex
+   * @return the first position to pass to {@link #getOutTarget(int)}
+   */
+  public int getOutStart(int id) {
+    return out.getStart(id);
+  }
+
+  /**
+   * Gets the position after the last outgoing neighbour of the given vertex.
+   *
+   * @param id the id of the source vertex
+   * @return the position to stop before
+   */
+  public int getOutEnd(int id) {
+    return out.getEnd(id);
+  }
+
+  /**
+   * Gets the outgoing neighbour at the given position.
+   *
+   * @param position a position between {@link #getOutStart(int)} and {@link #getOutEnd(int)}
+   * @return the id of the destination vertex
+   */
+  public int getOutTarget(int position) {
+    return out.getTarget(position);
+  }
+
+  /**
+   * Gets the position of the first incoming neighbour of the given vertex.
+   *
+   * @param id the id of the destination vertex
+   * @return the first position to pass to {@link #getInTarget(int)}
+   */
+  public int getInStart(int id) {
+    return in.getStart(id);
+  }
+
+  /**
+   * Gets the position after the last incoming neighbour of the given vertex.
+   *
+   * @param id the id of the destination vertex
+   * @return the position to stop before
+   */
+  public int getInEnd(int id) {
+    return in.getEnd(id);
+  }
+
+  /**
+   * Gets the incoming neighbour at the given position.
+   *
+   * @param position a position between {@link #getInStart(int)} and {@link #getInEnd(int)}
+   * @return the id of the source vertex
+   */
+  public int getInTarget(int position) {
+    return in.getTarget(position);
+  }
+
+  /**
+   * Counts the edges leaving the given vertex.
+   *
+   * @param id the id of the source vertex
+   * @return the out-degree of the vertex
+   */
+  public int getOutDegree(int id) {
+    return out.getEnd(id) - out.getStart(id);
+  }
+
+  /**
+   * Counts the edges entering the given vertex.
+   *
+   * @param id the id of the destination vertex
+   * @return the in-degree of the vertex
+   */
+  public int getInDegree(int id) {
+    return in.getEnd(id) - in.getStart(id);
+  }
+
+  /**
+   * Checks if there is an edge from one vertex to another.
+   *
+   * @param source the id of the source vertex
+   * @param destination the id of the destination vertex
+   * @return {@code true} if the edge exists, {@code false} otherwise
+   */
+  public boolean hasEdge(int source, int destination) {
+    long key = pack(source, destination);
+    return edgeTable[findSlot(key)] == key;
+  }
+}
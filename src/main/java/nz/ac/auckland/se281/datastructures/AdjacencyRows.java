@@ -0,0 +1,220 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * One direction of the neighbour rows of an {@link AdjacencyIndex}, each sorted in ascending order.
+ *
+ * <p>Rows start out packed one after another, exactly as in compressed sparse row form, where the
+ * start of each row is the end of the one before it. The first change gives every row a limit it
+ * can grow up to in place. A row that outgrows its limit is moved to the free space after the last
+ * row with room to double, and the space it leaves behind is wasted until the rows are packed
+ * again, which happens once half of the used space is wasted.
+ */
+class AdjacencyRows {
+  // the room given to an empty row the first time it is moved
+  private static final int MIN_ROW_CAPACITY = 4;
+
+  private int[] starts;
+  private int[] ends;
+  // the end of the space each row can use, or null while the rows are packed
+  private int[] limits;
+  private int[] targets;
+  private int rowCount;
+  private int used;
+  private int wasted;
+
+  /**
+   * Creates rows from packed compressed sparse row arrays, which are used without being copied.
+   *
+   * @param offsets the start of each row, followed by the end of the last one
+   * @param targets the values, grouped by row
+   */
+  AdjacencyRows(int[] offsets, int[] targets) {
+    this.rowCount = offsets.length - 1;
+    this.starts = offsets;
+    this.ends = Arrays.copyOfRange(offsets, 1, offsets.length);
+    this.targets = targets;
+    this.used = offsets[rowCount];
+  }
+
+  int getStart(int row) {
+    return starts[row];
+  }
+
+  int getEnd(int row) {
+    return ends[row];
+  }
+
+  int getTarget(int position) {
+    return targets[position];
+  }
+
+  /**
+   * Packs the rows and gets the start of each of them.
+   *
+   * @return the start of each row, followed by the end of the last one
+   */
+  int[] getOffsets() {
+    pack();
+    return starts;
+  }
+
+  /**
+   * Packs the rows and gets their values.
+   *
+   * @return the values, grouped by row
+   */
+  int[] getTargets() {
+    pack();
+    return targets;
+  }
+
+  /**
+   * Adds a value to a row, keeping the row in ascending order.
+   *
+   * @param row the row to add to
+   * @param value the value to add, which must not already be in the row
+   */
+  void insert(int row, int value) {
+    unpack();
+    if (ends[row] == limits[row]) {
+      if (wasted > used / 2) {
+        pack();
+        unpack();
+      }
+      move(row, Math.max(MIN_ROW_CAPACITY, (ends[row] - starts[row]) * 2));
+    }
+
+    int position = -Arrays.binarySearch(targets, starts[row], ends[row], value) - 1;
+    System.arraycopy(targets, position, targets, position + 1, ends[row] - position);
+    targets[position] = value;
+    ends[row]++;
+  }
+
+  /**
+   * Removes a value from a row.
+   *
+   * @param row the row to remove from
+   * @param value the value to remove, which must be in the row
+   */
+  void remove(int row, int value) {
+    unpack();
+    int position = Arrays.binarySearch(targets, starts[row], ends[row], value);
+    System.arraycopy(targets, position + 1, targets, position, ends[row] - position - 1);
+    ends[row]--;
+  }
+
+  /**
+   * Adds an empty row, moving every row from the given one onwards along by one and adding one to
+   * every value that refers to them.
+   *
+   * @param row the number of the new row
+   */
+  void insertRow(int row) {
+    unpack();
+    if (rowCount == starts.length) {
+      int capacity = Math.max(MIN_ROW_CAPACITY, rowCount * 2);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      limits = Arrays.copyOf(limits, capacity);
+    }
+
+    System.arraycopy(starts, row, starts, row + 1, rowCount - row);
+    System.arraycopy(ends, row, ends, row + 1, rowCount - row);
+    System.arraycopy(limits, row, limits, row + 1, rowCount - row);
+    starts[row] = used;
+    ends[row] = used;
+    limits[row] = used;
+    rowCount++;
+
+    if (row < rowCount - 1) {
+      renumber(row, 1);
+    }
+  }
+
+  /**
+   * Removes an empty row, moving every row after it back by one and taking one from every value
+   * that refers to them.
+   *
+   * @param row the row to remove
+   */
+  void removeRow(int row) {
+    unpack();
+    wasted += limits[row] - starts[row];
+    System.arraycopy(starts, row + 1, starts, row, rowCount - row - 1);
+    System.arraycopy(ends, row + 1, ends, row, rowCount - row - 1);
+    System.arraycopy(limits, row + 1, limits, row, rowCount - row - 1);
+    rowCount--;
+    renumber(row + 1, -1);
+  }
+
+  /**
+   * Adds the same amount to every value from the given one upwards. Rows stay in ascending order,
+   * as the values that change keep their order and stay above the ones that do not.
+   *
+   * @param from the smallest value to change
+   * @param change the amount to add
+   */
+  private void renumber(int from, int change) {
+    for (int row = 0; row < rowCount; row++) {
+      for (int i = starts[row]; i < ends[row]; i++) {
+        if (targets[i] >= from) {
+          targets[i] += change;
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves a row to the free space after the last row.
+   *
+   * @param row the row to move
+   * @param capacity the room to give it
+   */
+  private void move(int row, int capacity) {
+    if (used + capacity > targets.length) {
+      targets = Arrays.copyOf(targets, Math.max(targets.length * 2, used + capacity));
+    }
+
+    int length = ends[row] - starts[row];
+    System.arraycopy(targets, starts[row], targets, used, length);
+    wasted += limits[row] - starts[row];
+    starts[row] = used;
+    ends[row] = used + length;
+    limits[row] = used + capacity;
+    used += capacity;
+  }
+
+  /** Gives every row a limit, so that it can be changed. */
+  private void unpack() {
+    if (limits == null) {
+      ends = Arrays.copyOf(ends, starts.length);
+      limits = Arrays.copyOf(ends, starts.length);
+    }
+  }
+
+  /** Packs the rows one after another with no room between them, as they were created. */
+  private void pack() {
+    if (limits == null) {
+      return;
+    }
+
+    int[] packedStarts = new int[rowCount + 1];
+    for (int row = 0; row < rowCount; row++) {
+      packedStarts[row + 1] = packedStarts[row] + ends[row] - starts[row];
+    }
+    int[] packedTargets = new int[packedStarts[rowCount]];
+    for (int row = 0; row < rowCount; row++) {
+      System.arraycopy(
+          targets, starts[row], packedTargets, packedStarts[row], ends[row] - starts[row]);
+    }
+
+    starts = packedStarts;
+    ends = Arrays.copyOfRange(packedStarts, 1, packedStarts.length);
+    targets = packedTargets;
+    limits = null;
+    used = packedTargets.length;
+    wasted = 0;
+  }
+}
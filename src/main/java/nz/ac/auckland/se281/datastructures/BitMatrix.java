@@ -0,0 +1,141 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * A square matrix of bits, stored row by row in 64-bit words so that whole rows can be compared and
+ * combined a word at a time.
+ */
+public class BitMatrix {
+  // the most words an array can hold
+  private static final long MAX_WORDS = Integer.MAX_VALUE - 8;
+
+  private final int size;
+  private final int words;
+  private final long[] bits;
+
+  /**
+   * Creates a matrix with every bit cleared.
+   *
+   * @param size the number of rows and columns
+   */
+  public BitMatrix(int size) {
+    this.size = size;
+    this.words = (size + 63) >>> 6;
+    this.bits = new long[size * words];
+  }
+
+  /**
+   * Checks if a matrix of the given size can be made, that is if its words fit in an array and
+   * take up no more than half of the heap that is still free, so that building it leaves room for
+   * everything else.
+   *
+   * @param size the number of rows and columns
+   * @return {@code true} if the matrix fits, {@code false} otherwise
+   */
+  public static boolean fits(int size) {
+    long words = (long) size * ((size + 63) >>> 6);
+    if (words > MAX_WORDS) {
+      return false;
+    }
+
+    Runtime runtime = Runtime.getRuntime();
+    long free = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    return words * Long.BYTES <= free / 2;
+  }
+
+  /**
+   * Gets the number of rows and columns.
+   *
+   * @return the size of the matrix
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Sets the bit in the given row and column.
+   *
+   * @param row the row of the bit
+   * @param column the column of the bit
+   */
+  public void set(int row, int column) {
+    bits[row * words + (column >>> 6)] |= 1L << column;
+  }
+
+  /**
+   * Gets the bit in the given row and column.
+   *
+   * @param row the row of the bit
+   * @param column the column of the bit
+   * @return {@code true} if the bit is set, {@code false} otherwise
+   */
+  public boolean get(int row, int column) {
+    return (bits[row * words + (column >>> 6)] & (1L << column)) != 0;
+  }
+
+  /**
+   * Gets one 64-bit word of a row, holding the bits of the 64 columns starting at {@code word *
+   * 64}.
+   *
+   * @param row the row of the word
+   * @param word the index of the word in the row
+   * @return the word
+   */
+  public long getWord(int row, int word) {
+    return bits[row * words + word];
+  }
+
+  /**
+   * Finds the first set bit of a row at or after the given column.
+   *
+   * @param row the row to search
+   * @param column the column to start from
+   * @return the column of the bit, or -1 if there is none
+   */
+  public int nextSetBit(int row, int column) {
+    if (column >= size) {
+      return -1;
+    }
+
+    int word = column >>> 6;
+    long current = bits[row * words + word] & (-1L << column);
+    while (current == 0) {
+      if (++word == words) {
+        return -1;
+      }
+      current = bits[row * words + word];
+    }
+    return (word << 6) + Long.numberOfTrailingZeros(current);
+  }
+
+  /**
+   * Sets every bit in one row that is set in another.
+   *
+   * @param row the row to add to
+   * @param other the row to add
+   */
+  public void or(int row, int other) {
+    int to = row * words;
+    int from = other * words;
+    for (int i = 0; i < words; i++) {
+      bits[to + i] |= bits[from + i];
+    }
+  }
+
+  /**
+   * Checks if every bit set in one row is also set in another.
+   *
+   * @param row the row that should be contained
+   * @param other the row that should contain it
+   * @return {@code true} if {@code row} is a subset of {@code other}, {@code false} otherwise
+   */
+  public boolean isSubset(int row, int other) {
+    int from = row * words;
+    int to = other * words;
+    for (int i = 0; i < words; i++) {
+      if ((bits[from + i] & ~bits[to + i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
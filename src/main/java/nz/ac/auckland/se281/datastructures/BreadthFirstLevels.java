@@ -0,0 +1,104 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a level-by-level breadth-first search: the level of each vertex, which is its
+ * distance from the nearest root, and the vertex it was first reached from.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class BreadthFirstLevels<T extends Comparable<T>> {
+  private final AdjacencyIndex<T> index;
+  private final int[] levels;
+  private final int[] parents;
+  private final int levelCount;
+
+  /**
+   * Creates the result of a search.
+   *
+   * @param index the index that was searched
+   * @param levels the level of each vertex id, or -1 if it was not reached
+   * @param parents the parent of each vertex id, or -1 if it has none
+   */
+  BreadthFirstLevels(AdjacencyIndex<T> index, int[] levels, int[] parents) {
+    this.index = index;
+    this.levels = levels;
+    this.parents = parents;
+
+    int deepest = -1;
+    for (int level : levels) {
+      deepest = Math.max(deepest, level);
+    }
+    this.levelCount = deepest + 1;
+  }
+
+  /**
+   * Gets the number of levels in the search, which is one more than the greatest distance.
+   *
+   * @return the number of levels
+   */
+  public int getLevelCount() {
+    return levelCount;
+  }
+
+  /**
+   * Gets the distance of a vertex from the nearest root.
+   *
+   * @param vertex the vertex to look up
+   * @return its level, or -1 if it was not reached or is not in the graph
+   */
+  public int getLevel(T vertex) {
+    int id = index.getId(vertex);
+    return id == -1 ? -1 : levels[id];
+  }
+
+  /**
+   * Gets the vertex that a vertex was reached from, which is its smallest predecessor in the level
+   * before it.
+   *
+   * @param vertex the vertex to look up
+   * @return its parent, or null if it is a root, was not reached, or is not in the graph
+   */
+  public T getParent(T vertex) {
+    int id = index.getId(vertex);
+    if (id == -1 || parents[id] == -1) {
+      return null;
+    }
+    return index.getVertex(parents[id]);
+  }
+
+  /**
+   * Gets the verticies in each level, in ascending order within each level.
+   *
+   * @return the levels, starting with the roots
+   */
+  public List<List<T>> getLevels() {
+    List<List<T>> result = new ArrayList<>(levelCount);
+    for (int level = 0; level < levelCount; level++) {
+      result.add(new ArrayList<>());
+    }
+
+    // the ids are visited in ascending order, which is the order of the verticies
+    for (int id = 0; id < levels.length; id++) {
+      if (levels[id] != -1) {
+        result.get(levels[id]).add(index.getVertex(id));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets every vertex that was reached, level by level and in ascending order within each level.
+   *
+   * @return the search order
+   */
+  public List<T> getOrder() {
+    List<T> result = new ArrayList<>();
+    for (List<T> level : getLevels()) {
+      result.addAll(level);
+    }
+    return result;
+  }
+}
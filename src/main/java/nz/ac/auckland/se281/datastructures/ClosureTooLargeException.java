@@ -0,0 +1,28 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * Thrown when the transitive closure of a graph is asked for, but the graph has too many verticies
+ * or edges for the closure to be held in memory.
+ */
+public class ClosureTooLargeException extends RuntimeException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates an exception for a closure that was not built.
+   *
+   * @param message the reason the closure could not be built
+   */
+  public ClosureTooLargeException(String message) {
+    super(message);
+  }
+
+  /**
+   * Creates an exception for a closure that ran out of room while it was being built.
+   *
+   * @param message the reason the closure could not be built
+   * @param cause the error that stopped it
+   */
+  public ClosureTooLargeException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
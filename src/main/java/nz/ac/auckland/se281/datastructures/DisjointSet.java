@@ -0,0 +1,227 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A union-find partition of the integers {@code 0} to {@code size() - 1} into disjoint classes,
+ * using path compression and union by rank so that each operation takes near-constant time. The
+ * smallest member and the size of each class are tracked as classes are merged, and the members of
+ * each class are linked in a ring so that one class can be listed without looking at the others.
+ * New elements can be added at any time, each in a class of its own.
+ */
+public class DisjointSet {
+  private int[] parent;
+  private byte[] rank;
+  private int[] minimum;
+  private int[] sizes;
+  // the next member of the same class, going round the class in a ring
+  private int[] next;
+  private int elements;
+  private int count;
+  private long pairs;
+
+  /**
+   * Creates a partition where every element is in a class of its own.
+   *
+   * @param size the number of elements
+   */
+  public DisjointSet(int size) {
+    this.parent = new int[size];
+    this.rank = new byte[size];
+    this.minimum = new int[size];
+    this.sizes = new int[size];
+    this.next = new int[size];
+    this.elements = size;
+    this.count = size;
+    this.pairs = size;
+
+    for (int i = 0; i < size; i++) {
+      parent[i] = i;
+      minimum[i] = i;
+      sizes[i] = 1;
+      next[i] = i;
+    }
+  }
+
+  /**
+   * Adds a new element in a class of its own.
+   *
+   * @return the new element, which is the previous size of the partition
+   */
+  public int add() {
+    if (elements == parent.length) {
+      int capacity = Math.max(16, elements * 2);
+      parent = Arrays.copyOf(parent, capacity);
+      rank = Arrays.copyOf(rank, capacity);
+      minimum = Arrays.copyOf(minimum, capacity);
+      sizes = Arrays.copyOf(sizes, capacity);
+      next = Arrays.copyOf(next, capacity);
+    }
+
+    int element = elements++;
+    parent[element] = element;
+    minimum[element] = element;
+    sizes[element] = 1;
+    next[element] = element;
+    count++;
+    pairs++;
+    return element;
+  }
+
+  /**
+   * Gets the number of elements in the partition.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return elements;
+  }
+
+  /**
+   * Counts the ordered pairs of elements that share a class, including each element paired with
+   * itself, which is the sum of the squares of the class sizes. A relation whose edges all lie
+   * within the classes has exactly this many edges when every class is complete.
+   *
+   * @return the number of pairs
+   */
+  public long getPairCount() {
+    return pairs;
+  }
+
+  /**
+   * Gets the number of classes in the partition.
+   *
+   * @return the number of classes
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Finds the representative of the class containing the given element.
+   *
+   * @param element the element to look up
+   * @return the representative of its class
+   */
+  public int find(int element) {
+    int root = element;
+    while (parent[root] != root) {
+      root = parent[root];
+    }
+
+    // point every element on the path straight at the root
+    while (parent[element] != root) {
+      int next = parent[element];
+      parent[element] = root;
+      element = next;
+    }
+    return root;
+  }
+
+  /**
+   * Merges the classes containing the two given elements.
+   *
+   * @param first an element of the first class
+   * @param second an element of the second class
+   * @return {@code true} if two classes were merged, {@code false} if they were already the same
+   */
+  public boolean union(int first, int second) {
+    int firstRoot = find(first);
+    int secondRoot = find(second);
+    if (firstRoot == secondRoot) {
+      return false;
+    }
+
+    // hang the shallower tree under the deeper one
+    if (rank[firstRoot] < rank[secondRoot]) {
+      int swap = firstRoot;
+      firstRoot = secondRoot;
+      secondRoot = swap;
+    }
+    parent[secondRoot] = firstRoot;
+    if (rank[firstRoot] == rank[secondRoot]) {
+      rank[firstRoot]++;
+    }
+    minimum[firstRoot] = Math.min(minimum[firstRoot], minimum[secondRoot]);
+    pairs += 2L * sizes[firstRoot] * sizes[secondRoot];
+    sizes[firstRoot] += sizes[secondRoot];
+
+    // swapping the successors of one member of each ring joins the two rings into one
+    int swap = next[first];
+    next[first] = next[second];
+    next[second] = swap;
+
+    count--;
+    return true;
+  }
+
+  /**
+   * Checks if two elements are in the same class.
+   *
+   * @param first the first element
+   * @param second the second element
+   * @return {@code true} if they share a class, {@code false} otherwise
+   */
+  public boolean isConnected(int first, int second) {
+    return find(first) == find(second);
+  }
+
+  /**
+   * Gets the smallest element in the class containing the given element.
+   *
+   * @param element an element of the class
+   * @return the smallest element of the class
+   */
+  public int getMinimum(int element) {
+    return minimum[find(element)];
+  }
+
+  /**
+   * Lists the members of the class containing the given element, in the time it takes to visit
+   * them.
+   *
+   * @param element an element of the class
+   * @return the members of the class, in no particular order
+   */
+  public int[] getMembers(int element) {
+    int[] members = new int[sizes[find(element)]];
+    int member = element;
+    for (int i = 0; i < members.length; i++) {
+      members[i] = member;
+      member = next[member];
+    }
+    return members;
+  }
+
+  /**
+   * Groups every element by its class. The classes are ordered by their smallest element, and the
+   * members of each class are in ascending order.
+   *
+   * @return the members of each class
+   */
+  public int[][] getClasses() {
+    int[] classOf = new int[size()];
+    int[] sizes = new int[count];
+    int classes = 0;
+
+    // elements are visited in ascending order, so a class is numbered when its minimum is reached
+    for (int i = 0; i < size(); i++) {
+      int root = find(i);
+      if (minimum[root] == i) {
+        classOf[root] = classes++;
+      }
+      sizes[classOf[root]]++;
+    }
+
+    int[][] members = new int[count][];
+    for (int i = 0; i < count; i++) {
+      members[i] = new int[sizes[i]];
+      sizes[i] = 0;
+    }
+    for (int i = 0; i < size(); i++) {
+      int group = classOf[find(i)];
+      members[group][sizes[group]++] = i;
+    }
+    return members;
+  }
+}
@@ -1,5 +1,7 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Objects;
+
 /**
  * An edge in a graph that connects two verticies.
  *
@@ -18,9 +20,12 @@ public class Edge<T> {
 
   protected final T destination;
 
+  private final int hash;
+
   public Edge(T source, T destination) {
     this.source = source;
     this.destination = destination;
+    this.hash = 31 * Objects.hashCode(source) + Objects.hashCode(destination);
   }
 
   public T getSource() {
@@ -30,4 +35,34 @@ public class Edge<T> {
   public T getDestination() {
     return destination;
   }
+
+  /**
+   * Checks if another object is an edge between the same two verticies, in the same direction.
+   *
+   * @param obj the object to compare with
+   * @return {@code true} if the edges have equal sources and destinations, {@code false} otherwise
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Edge)) {
+      return false;
+    }
+    Edge<?> other = (Edge<?>) obj;
+    return hash == other.hash
+        && Objects.equals(source, other.source)
+        && Objects.equals(destination, other.destination);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return source + " -> " + destination;
+  }
 }
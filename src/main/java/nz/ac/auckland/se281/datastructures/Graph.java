@@ -1,24 +1,209 @@
 package nz.ac.auckland.se281.datastructures;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
 
 /**
  * A graph that is composed of a set of verticies and edges.
  *
+ * <p>A graph can be read from many threads at once, as long as nothing changes it in the meantime.
+ * What it works out the first time it is asked is built under the lock of the graph, and the
+ * relation properties are checked outside of it, so threads checking different properties do not
+ * wait for each other.
+ *
  * <p>You must NOT change the signature of the existing methods or constructor of this class.
  *
  * @param <T> The type of each vertex, that have a total ordering.
  */
 public class Graph<T extends Comparable<T>> {
+  // the smallest graph whose relation properties are checked on the check pool, if there is one
+  private static final int PARALLEL_VERTEX_LIMIT = 1 << 14;
+
   protected final Set<T> verticies;
   protected final Set<Edge<T>> edges;
+  protected final AdjacencyIndex<T> index;
+
+  // the relation properties that have been checked since the graph last changed
+  private final Map<RelationProperty, Boolean> properties;
+
+  // a union-find over every edge, built the first time it is needed and then kept up to date as
+  // edges are added, though not when they are removed
+  private DisjointSet partition;
+
+  // the equivalence classes, listed from the partition the first time they are needed
+  private int[][] classes;
+
+  // the transitive closure, built the first time it is needed
+  private BitMatrix closure;
+
+  // the ids in the order that a hash set of the verticies iterates over them when it is filled in
+  // ascending order, as the set the graph used to be given was, built the first time it is needed
+  private int[] hashOrder;
+
+  // the strongly connected components, found the first time they are needed
+  private StronglyConnectedComponents components;
+
+  // the pool that the relation properties are checked on, or null to check them on this thread
+  private volatile ForkJoinPool checkPool;
+
+  // counts found by a single scan of the edges the first time any of them is needed, and then kept
+  // up to date as edges change, from which reflexivity, symmetry and anti-symmetry are all read
+  private boolean counting;
+  private int selfLoops;
+  private int unmatchedEdges;
+  private int matchedEdges;
 
   public Graph(Set<T> verticies, Set<Edge<T>> edges) {
-    this.verticies = verticies;
-    this.edges = edges;
+    GraphBuilder<T> builder = new GraphBuilder<>();
+    for (T vertex : verticies) {
+      builder.addVertex(vertex);
+    }
+    for (Edge<T> edge : edges) {
+      builder.addEdge(edge.getSource(), edge.getDestination());
+    }
+
+    // the verticies and edges are views of the index, so they follow any later changes
+    this.index = builder.buildIndex();
+    this.verticies = index.getVertexSet();
+    this.edges = index.getEdgeSet();
+    this.properties = new EnumMap<>(RelationProperty.class);
+  }
+
+  /**
+   * Creates a graph directly from an adjacency index, as done by {@link GraphBuilder}. The
+   * verticies and edges are read-only views of the index.
+   *
+   * @param index the index of the verticies and edges
+   */
+  Graph(AdjacencyIndex<T> index) {
+    this.verticies = index.getVertexSet();
+    this.edges = index.getEdgeSet();
+    this.index = index;
+    this.properties = new EnumMap<>(RelationProperty.class);
+  }
+
+  /**
+   * Gets the verticies of the graph.
+   *
+   * @return an unmodifiable set of the verticies
+   */
+  public Set<T> getVerticies() {
+    return Collections.unmodifiableSet(verticies);
+  }
+
+  /**
+   * Gets the edges of the graph.
+   *
+   * @return an unmodifiable set of the edges
+   */
+  public Set<Edge<T>> getEdges() {
+    return Collections.unmodifiableSet(edges);
+  }
+
+  /**
+   * Forgets every remembered relation property, so that they are checked again the next time they
+   * are asked for. This must be called whenever the verticies or edges change.
+   */
+  protected void invalidateProperties() {
+    forgetProperties();
+    partition = null;
+  }
+
+  /**
+   * Forgets every remembered relation property and everything built from the edges, apart from the
+   * partition, which is left for the caller to keep up to date.
+   */
+  private void forgetProperties() {
+    synchronized (properties) {
+      properties.clear();
+    }
+    classes = null;
+    closure = null;
+    components = null;
+  }
+
+  /**
+   * Sets the pool that the relation properties of large graphs are checked on. Each check splits
+   * the verticies between the threads of the pool, and stops every thread as soon as one of them
+   * finds a counter-example. The transitive closure is also built on this pool.
+   *
+   * @param checkPool the pool to check on, or {@code null} to check on the calling thread
+   */
+  public void setCheckPool(ForkJoinPool checkPool) {
+    this.checkPool = checkPool;
+  }
+
+  /**
+   * Checks that a condition holds at every vertex, splitting the verticies between the threads of
+   * the check pool if the graph is large enough to be worth it.
+   *
+   * @param holds the condition, given the id of a vertex
+   * @return {@code true} if the condition holds at every vertex, {@code false} otherwise
+   */
+  private boolean allVerticies(IntPredicate holds) {
+    if (checkPool != null && index.size() >= PARALLEL_VERTEX_LIMIT) {
+      return ParallelVertexCheck.allMatch(checkPool, index.size(), holds);
+    }
+
+    for (int vertex = 0; vertex < index.size(); vertex++) {
+      if (!holds.test(vertex)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets a relation property if it has been checked since the graph last changed, without checking
+   * it otherwise.
+   *
+   * @param property the property to get
+   * @return {@code true} or {@code false} if the property is remembered, or {@code null} if not
+   */
+  Boolean getRememberedProperty(RelationProperty property) {
+    synchronized (properties) {
+      return properties.get(property);
+    }
+  }
+
+  /**
+   * Remembers a relation property that is already known, such as one loaded from a {@link
+   * GraphSnapshot}, so that it is not checked again.
+   *
+   * @param property the property
+   * @param value if the graph has the property
+   */
+  void rememberProperty(RelationProperty property, boolean value) {
+    synchronized (properties) {
+      properties.put(property, value);
+    }
+  }
+
+  /**
+   * Gets a relation property, only checking it if it has not been checked since the graph last
+   * changed.
+   *
+   * @param property the property to get
+   * @param check the check to run if the property is not remembered
+   * @return {@code true} if the graph has the property, {@code false} otherwise
+   */
+  private boolean getProperty(RelationProperty property, BooleanSupplier check) {
+    Boolean value = getRememberedProperty(property);
+    if (value == null) {
+      // the check only reads the graph, so it runs without holding a lock, and two threads that
+      // ask at once may both run it and then remember the same answer
+      value = check.getAsBoolean();
+      rememberProperty(property, value);
+    }
+    return value;
   }
 
   /**
@@ -29,28 +214,26 @@ public class Graph<T extends Comparable<T>> {
   public Set<T> getRoots() {
     Set<T> lowestVertices = new HashSet<>();
 
+    // the roots go into the set in the order they always have, so that roots which share a bucket
+    // of the set, and every search that starts from them, still come out in the same order
+    int[] order = getHashOrder();
+
     if (isEquivalence()) {
-      for (T vertex : verticies) {
-        Set<T> equivalenceClass = getEquivalenceClass(vertex);
-        T lowestVertex = findLowestVertex(equivalenceClass);
-        lowestVertices.add(lowestVertex);
+      // each vertex adds the lowest member of its class, which classes list first
+      int[] lowest = new int[index.size()];
+      for (int[] equivalenceClass : getClasses()) {
+        for (int member : equivalenceClass) {
+          lowest[member] = equivalenceClass[0];
+        }
+      }
+      for (int vertex : order) {
+        lowestVertices.add(index.getVertex(lowest[vertex]));
       }
     } else {
-      // find the verticies with no incoming edges and at least one outgoing edge using getSource
-      // and getDestination
-      for (T vertex : verticies) {
-        boolean hasIncomingEdge = false;
-        boolean hasOutgoingEdge = false;
-        for (Edge<T> edge : edges) {
-          if (edge.getDestination().equals(vertex)) {
-            hasIncomingEdge = true;
-          }
-          if (edge.getSource().equals(vertex)) {
-            hasOutgoingEdge = true;
-          }
-        }
-        if (!hasIncomingEdge && hasOutgoingEdge) {
-          lowestVertices.add(vertex);
+      // find the verticies with no incoming edges and at least one outgoing edge
+      for (int vertex : order) {
+        if (index.getInDegree(vertex) == 0 && index.getOutDegree(vertex) > 0) {
+          lowestVertices.add(index.getVertex(vertex));
         }
       }
     }
@@ -58,61 +241,165 @@ public class Graph<T extends Comparable<T>> {
     return lowestVertices;
   }
 
-  private T findLowestVertex(Set<T> vertices) {
-    T lowestVertex = null;
-    for (T vertex : vertices) {
-      if (lowestVertex == null || vertex.compareTo(lowestVertex) < 0) {
-        lowestVertex = vertex;
+  /**
+   * Gets the ids in the order that a hash set of the verticies iterates over them, when the
+   * verticies are added to it in ascending order, working it out the first time it is needed.
+   *
+   * @return the ids in hash set order
+   */
+  private synchronized int[] getHashOrder() {
+    if (hashOrder == null) {
+      Set<T> hashed = new HashSet<>();
+      for (int id = 0; id < index.size(); id++) {
+        hashed.add(index.getVertex(id));
+      }
+
+      int[] order = new int[index.size()];
+      int position = 0;
+      for (T vertex : hashed) {
+        order[position++] = index.getId(vertex);
       }
+      hashOrder = order;
     }
-    return lowestVertex;
+    return hashOrder;
   }
 
   /**
-   * Checks if the graph represented by the vertices and edges is reflexive.
+   * Finds a root for every part of the graph, including the cycles that {@link #getRoots()} misses.
+   * Each strongly connected component with no edges coming into it from another component is a
+   * source of the condensation, and its lowest vertex is taken as its root.
    *
-   * @return {@code true} if the graph is reflexive, {@code false} otherwise
+   * @return the lowest vertex of each source component
    */
-  public boolean isReflexive() {
-    // checks if the graph is reflexive
-    int reflexiveCount = 0;
-    for (T vertex : verticies) {
-      for (Edge<T> edge : edges) {
-        if (edge.getSource().equals(vertex) && edge.getDestination().equals(vertex)) {
-          reflexiveCount++;
-        }
+  public Set<T> getComponentRoots() {
+    StronglyConnectedComponents found = getComponents();
+    Set<T> roots = new HashSet<>();
+    int[][] members = found.getMembers();
+    for (int component = 0; component < members.length; component++) {
+      if (found.isSource(component)) {
+        roots.add(index.getVertex(members[component][0]));
       }
     }
-    if (reflexiveCount == verticies.size()) {
-      return true;
-    } else {
-      return false;
+    return roots;
+  }
+
+  /**
+   * Gets the strongly connected components of the graph, in which every vertex can reach every
+   * other. They are listed in a topological order, so edges between components only go forwards.
+   *
+   * @return the members of each component in ascending order
+   */
+  public List<List<T>> getStronglyConnectedComponents() {
+    List<List<T>> result = new ArrayList<>();
+    for (int[] members : getComponents().getMembers()) {
+      List<T> component = new ArrayList<>(members.length);
+      for (int member : members) {
+        component.add(index.getVertex(member));
+      }
+      result.add(component);
     }
+    return result;
   }
 
   /**
-   * Checks if the graph represented by the edges is symmetric.
+   * Gets the number of the strongly connected component that a vertex belongs to, which is its
+   * position in {@link #getStronglyConnectedComponents()}.
    *
-   * @return {@code true} if the graph is symmetric, {@code false} otherwise
+   * @param vertex the vertex to look up
+   * @return the number of its component, or -1 if it is not in the graph
    */
-  public boolean isSymmetric() {
-    int symmetricCount = 0;
+  public int getComponentId(T vertex) {
+    int id = index.getId(vertex);
+    return id == -1 ? -1 : getComponents().getComponent(id);
+  }
 
-    // checks if the graph is symmetric
-    for (Edge<T> edge : edges) {
-      for (Edge<T> edge2 : edges) {
-        if (edge.getSource().equals(edge2.getDestination())
-            && edge.getDestination().equals(edge2.getSource())) {
-          symmetricCount++;
+  /**
+   * Builds the condensation of the graph, which has a vertex for every strongly connected component
+   * and an edge wherever an edge joins two different components. It never has a cycle.
+   *
+   * @return the condensation, with each component as its number
+   */
+  public Graph<Integer> getCondensation() {
+    StronglyConnectedComponents found = getComponents();
+    GraphBuilder<Integer> builder = new GraphBuilder<>();
+    for (int component = 0; component < found.getCount(); component++) {
+      builder.addVertex(component);
+    }
+    for (int source = 0; source < index.size(); source++) {
+      for (int i = index.getOutStart(source); i < index.getOutEnd(source); i++) {
+        int from = found.getComponent(source);
+        int to = found.getComponent(index.getOutTarget(i));
+        if (from != to) {
+          builder.addEdge(from, to);
         }
       }
     }
+    return builder.build();
+  }
 
-    if (symmetricCount == edges.size()) {
-      return true;
-    } else {
-      return false;
+  private synchronized StronglyConnectedComponents getComponents() {
+    if (components == null) {
+      components = new StronglyConnectedComponents(index);
+    }
+    return components;
+  }
+
+  /**
+   * Gets the equivalence classes, listing them from the partition the first time they are needed.
+   * Only meaningful when the graph is an equivalence relation.
+   *
+   * @return the ids of the members of each class, ordered by their lowest member
+   */
+  private synchronized int[][] getClasses() {
+    if (classes == null) {
+      classes = getPartition().getClasses();
     }
+    return classes;
+  }
+
+  /**
+   * Gets the union-find over every edge, building it the first time it is needed.
+   *
+   * @return the partition of the vertex ids into weakly connected parts
+   */
+  private synchronized DisjointSet getPartition() {
+    if (partition == null) {
+      partition = new DisjointSet(index.size());
+      for (int source = 0; source < index.size(); source++) {
+        for (int i = index.getOutStart(source); i < index.getOutEnd(source); i++) {
+          partition.union(source, index.getOutTarget(i));
+        }
+      }
+    }
+    return partition;
+  }
+
+  /**
+   * Checks if the graph represented by the vertices and edges is reflexive.
+   *
+   * @return {@code true} if the graph is reflexive, {@code false} otherwise
+   */
+  public boolean isReflexive() {
+    return getProperty(RelationProperty.REFLEXIVE, this::checkReflexive);
+  }
+
+  private boolean checkReflexive() {
+    startCounting();
+    return selfLoops == index.size();
+  }
+
+  /**
+   * Checks if the graph represented by the edges is symmetric.
+   *
+   * @return {@code true} if the graph is symmetric, {@code false} otherwise
+   */
+  public boolean isSymmetric() {
+    return getProperty(RelationProperty.SYMMETRIC, this::checkSymmetric);
+  }
+
+  private boolean checkSymmetric() {
+    startCounting();
+    return unmatchedEdges == 0;
   }
 
   /**
@@ -122,25 +409,56 @@ public class Graph<T extends Comparable<T>> {
    *     false} otherwise
    */
   public boolean isTransitive() {
-    for (Edge<T> edge1 : edges) {
-      for (Edge<T> edge2 : edges) {
-        if (edge1.getDestination().equals(edge2.getSource())) {
-          boolean transitiveExists = false;
-          for (Edge<T> edge3 : edges) {
-            if (edge1.getSource().equals(edge3.getSource())
-                && edge2.getDestination().equals(edge3.getDestination())) {
-              transitiveExists = true;
-              break;
-            }
-          }
-          if (!transitiveExists) {
-            return false; // Transitive relationship does not exist
-          }
+    return getProperty(RelationProperty.TRANSITIVE, this::checkTransitive);
+  }
+
+  private boolean checkTransitive() {
+    // a subset check costs size / 64 words per edge, against the out-degree of the destination
+    // when checking edge by edge, so the bits only pay off on dense graphs, and only if they fit
+    long size = index.size();
+    if (index.getEdgeCount() * 64L >= size * size && BitMatrix.fits(index.size())) {
+      return checkTransitiveBitset();
+    }
+
+    return allVerticies(this::isTransitiveAt);
+  }
+
+  private boolean isTransitiveAt(int source) {
+    for (int i = index.getOutStart(source); i < index.getOutEnd(source); i++) {
+      int middle = index.getOutTarget(i);
+      for (int j = index.getOutStart(middle); j < index.getOutEnd(middle); j++) {
+        if (!index.hasEdge(source, index.getOutTarget(j))) {
+          return false; // Transitive relationship does not exist
         }
       }
     }
+    return true; // All pairs from this source satisfy the transitive relationship
+  }
+
+  /**
+   * Checks transitivity by storing the successors of each vertex as a row of bits. The relation is
+   * transitive exactly when, for every edge, the successors of the destination are a subset of the
+   * successors of the source, which is checked 64 verticies at a time.
+   *
+   * @return {@code true} if the relation is transitive, {@code false} otherwise
+   */
+  private boolean checkTransitiveBitset() {
+    BitMatrix successors = new BitMatrix(index.size());
+    for (int source = 0; source < index.size(); source++) {
+      for (int i = index.getOutStart(source); i < index.getOutEnd(source); i++) {
+        successors.set(source, index.getOutTarget(i));
+      }
+    }
 
-    return true; // All pairs satisfy the transitive relationship
+    return allVerticies(
+        source -> {
+          for (int i = index.getOutStart(source); i < index.getOutEnd(source); i++) {
+            if (!successors.isSubset(index.getOutTarget(i), source)) {
+              return false; // Transitive relationship does not exist
+            }
+          }
+          return true;
+        });
   }
 
   /**
@@ -149,17 +467,12 @@ public class Graph<T extends Comparable<T>> {
    * @return {@code true} if the relation is anti-symmetric, {@code false} otherwise
    */
   public boolean isAntiSymmetric() {
-    for (Edge<T> edge1 : edges) {
-      for (Edge<T> edge2 : edges) {
-        if (edge1.getSource().equals(edge2.getDestination())
-            && edge1.getDestination().equals(edge2.getSource())) {
-          if (!edge1.getSource().equals(edge1.getDestination())) {
-            return false; // Anti-symmetric relationship does not exist
-          }
-        }
-      }
-    }
-    return true; // All pairs satisfy the anti-symmetric relationship
+    return getProperty(RelationProperty.ANTI_SYMMETRIC, this::checkAntiSymmetric);
+  }
+
+  private boolean checkAntiSymmetric() {
+    startCounting();
+    return matchedEdges == 0;
   }
 
   /**
@@ -168,12 +481,19 @@ public class Graph<T extends Comparable<T>> {
    * @return {@code true} if the relation is an equivalence relation, {@code false} otherwise
    */
   public boolean isEquivalence() {
-    // check for equivalence
-    if (isReflexive() && isSymmetric() && isTransitive()) {
-      return true;
-    } else {
+    return getProperty(RelationProperty.EQUIVALENCE, this::checkEquivalence);
+  }
+
+  private boolean checkEquivalence() {
+    if (!isReflexive() || !isSymmetric()) {
       return false;
     }
+
+    // a reflexive and symmetric relation is transitive exactly when each connected part has every
+    // edge it could have, so counting the pairs in each part of the partition settles both
+    boolean complete = index.getEdgeCount() == getPartition().getPairCount();
+    rememberProperty(RelationProperty.TRANSITIVE, complete);
+    return complete;
   }
 
   /**
@@ -186,11 +506,10 @@ public class Graph<T extends Comparable<T>> {
   public Set<T> getEquivalenceClass(T vertex) {
     // get equivalence class
     Set<T> equivalenceClass = new HashSet<T>();
-    if (isEquivalence()) {
-      for (Edge<T> edge : edges) {
-        if (edge.getSource().equals(vertex)) {
-          equivalenceClass.add(edge.getDestination());
-        }
+    int id = index.getId(vertex);
+    if (id != -1 && isEquivalence()) {
+      for (int member : getClassMembers(id)) {
+        equivalenceClass.add(index.getVertex(member));
       }
       return equivalenceClass;
     } else {
@@ -198,6 +517,278 @@ public class Graph<T extends Comparable<T>> {
     }
   }
 
+  /**
+   * Gets the members of the class of a vertex in the partition. Finding the class shortens paths in
+   * the partition, so it is done under the lock of the graph.
+   *
+   * @param id the id of the vertex
+   * @return the ids of the members of its class
+   */
+  private synchronized int[] getClassMembers(int id) {
+    return getPartition().getMembers(id);
+  }
+
+  /**
+   * Retrieves every equivalence class of the graph.
+   *
+   * @return a list of the equivalence classes, ordered by their lowest vertex and each listing its
+   *     verticies in ascending order, or an empty list if the graph is not an equivalence relation
+   */
+  public List<List<T>> getEquivalenceClasses() {
+    List<List<T>> equivalenceClasses = new ArrayList<>();
+    if (isEquivalence()) {
+      for (int[] members : getClasses()) {
+        List<T> equivalenceClass = new ArrayList<>(members.length);
+        for (int member : members) {
+          equivalenceClass.add(index.getVertex(member));
+        }
+        equivalenceClasses.add(equivalenceClass);
+      }
+    }
+    return equivalenceClasses;
+  }
+
+  /**
+   * Checks if there is an edge from one vertex to another.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   * @return {@code true} if the edge exists, {@code false} otherwise
+   */
+  public boolean hasEdge(T source, T destination) {
+    int sourceId = index.getId(source);
+    int destinationId = index.getId(destination);
+    return sourceId != -1 && destinationId != -1 && index.hasEdge(sourceId, destinationId);
+  }
+
+  /**
+   * Adds a vertex to the graph.
+   *
+   * @param vertex the vertex to add
+   * @return {@code true} if the vertex was added, {@code false} if it was already in the graph
+   */
+  public boolean addVertex(T vertex) {
+    startCounting();
+    if (!index.addVertex(vertex)) {
+      return false;
+    }
+    hashOrder = null;
+
+    // a vertex added after every other keeps the ids of the rest, so the partition can grow
+    DisjointSet kept = partition;
+    invalidateProperties();
+    if (kept != null && index.getId(vertex) == kept.size()) {
+      kept.add();
+      partition = kept;
+    }
+    return true;
+  }
+
+  /**
+   * Removes a vertex from the graph, along with every edge to or from it.
+   *
+   * @param vertex the vertex to remove
+   * @return {@code true} if the vertex was removed, {@code false} if it was not in the graph
+   */
+  public boolean removeVertex(T vertex) {
+    int id = index.getId(vertex);
+    if (id == -1) {
+      return false;
+    }
+
+    startCounting();
+    while (index.getOutDegree(id) > 0) {
+      deleteEdge(id, index.getOutTarget(index.getOutStart(id)));
+    }
+    while (index.getInDegree(id) > 0) {
+      deleteEdge(index.getInTarget(index.getInStart(id)), id);
+    }
+    index.removeVertex(vertex);
+    hashOrder = null;
+    invalidateProperties();
+    return true;
+  }
+
+  /**
+   * Adds an edge to the graph, adding its verticies first if they are not already in the graph.
+   * The reflexive, symmetric and anti-symmetric properties are kept up to date as the edge is
+   * added, so they can be answered straight away afterwards.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   * @return {@code true} if the edge was added, {@code false} if it was already in the graph
+   */
+  public boolean addEdge(T source, T destination) {
+    addVertex(source);
+    addVertex(destination);
+    startCounting();
+
+    int sourceId = index.getId(source);
+    int destinationId = index.getId(destination);
+    if (!index.addEdge(sourceId, destinationId)) {
+      return false;
+    }
+
+    if (sourceId == destinationId) {
+      selfLoops++;
+    } else if (index.hasEdge(destinationId, sourceId)) {
+      // the reverse edge is no longer unmatched, and the pair now breaks anti-symmetry
+      unmatchedEdges--;
+      matchedEdges += 2;
+    } else {
+      unmatchedEdges++;
+    }
+
+    forgetProperties();
+    if (partition != null) {
+      partition.union(sourceId, destinationId);
+    }
+    return true;
+  }
+
+  /**
+   * Removes an edge from the graph. The verticies of the edge stay in the graph.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   * @return {@code true} if the edge was removed, {@code false} if it was not in the graph
+   */
+  public boolean removeEdge(T source, T destination) {
+    int sourceId = index.getId(source);
+    int destinationId = index.getId(destination);
+    if (sourceId == -1 || destinationId == -1 || !index.hasEdge(sourceId, destinationId)) {
+      return false;
+    }
+
+    startCounting();
+    deleteEdge(sourceId, destinationId);
+    invalidateProperties();
+    return true;
+  }
+
+  private void deleteEdge(int sourceId, int destinationId) {
+    index.removeEdge(sourceId, destinationId);
+    if (sourceId == destinationId) {
+      selfLoops--;
+    } else if (index.hasEdge(destinationId, sourceId)) {
+      // the reverse edge is left unmatched
+      matchedEdges -= 2;
+      unmatchedEdges++;
+    } else {
+      unmatchedEdges--;
+    }
+  }
+
+  /**
+   * Counts the self loops and the edges with and without a reverse edge in a single {@link
+   * PropertyScan}, the first time any of them is needed. From then on the counts are kept up to
+   * date by each change.
+   */
+  private synchronized void startCounting() {
+    if (counting) {
+      return;
+    }
+
+    PropertyScan scan =
+        PropertyScan.scan(index, index.size() >= PARALLEL_VERTEX_LIMIT ? checkPool : null);
+    selfLoops = scan.getSelfLoops();
+    matchedEdges = scan.getMatchedEdges();
+    unmatchedEdges = scan.getUnmatchedEdges();
+    counting = true;
+  }
+
+  /**
+   * Gets the counts of the self loops and of the edges with and without a reverse edge, which are
+   * found together in one pass over the edges the first time they are needed, and the reflexivity,
+   * symmetry and anti-symmetry that they settle.
+   *
+   * @return the summary
+   */
+  public synchronized PropertySummary getPropertySummary() {
+    startCounting();
+    return new PropertySummary(
+        index.size(), index.getEdgeCount(), selfLoops, matchedEdges, unmatchedEdges);
+  }
+
+  /**
+   * Checks if there is a path of one or more edges from one vertex to another. The transitive
+   * closure is built the first time this is called, after which each call is a single lookup.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   * @return {@code true} if the destination can be reached from the source, {@code false}
+   *     otherwise
+   * @throws ClosureTooLargeException if the graph is too large for its closure to be built
+   */
+  public boolean reaches(T source, T destination) {
+    int sourceId = index.getId(source);
+    int destinationId = index.getId(destination);
+    return sourceId != -1 && destinationId != -1 && getClosure().get(sourceId, destinationId);
+  }
+
+  /**
+   * Computes the transitive closure of the graph, the smallest transitive relation that contains
+   * every edge. It has an edge from one vertex to another whenever there is a path between them.
+   *
+   * @return a new graph of the same verticies and the closure of the edges
+   * @throws ClosureTooLargeException if the graph is too large for its closure to be built
+   */
+  public Graph<T> transitiveClosure() {
+    BitMatrix reach = getClosure();
+    Graph<T> result;
+    try {
+      GraphBuilder<T> builder = new GraphBuilder<>();
+      for (int vertex = 0; vertex < index.size(); vertex++) {
+        builder.addVertex(index.getVertex(vertex));
+      }
+      for (int source = 0; source < index.size(); source++) {
+        for (int target = reach.nextSetBit(source, 0);
+            target != -1;
+            target = reach.nextSetBit(source, target + 1)) {
+          builder.addEdge(source, target);
+        }
+      }
+      result = builder.build();
+    } catch (IllegalStateException | OutOfMemoryError e) {
+      // the builder ran out of room for the edges of the closure
+      throw new ClosureTooLargeException(
+          "The transitive closure has too many edges to be built", e);
+    }
+
+    result.rememberProperty(RelationProperty.TRANSITIVE, true);
+    return result;
+  }
+
+  private synchronized BitMatrix getClosure() {
+    if (closure == null) {
+      if (!BitMatrix.fits(index.size())) {
+        throw new ClosureTooLargeException(
+            "The graph has too many verticies for its transitive closure to be built");
+      }
+      try {
+        closure = TransitiveClosure.compute(index, checkPool);
+      } catch (OutOfMemoryError e) {
+        // the free heap was used up by something else after it was checked
+        throw new ClosureTooLargeException(
+            "The graph ran out of memory while its transitive closure was built", e);
+      }
+    }
+    return closure;
+  }
+
+  /**
+   * Gets the ids of the roots, in the order that {@link #getRoots()} iterates over them.
+   *
+   * @return the ids of the roots
+   */
+  private List<Integer> getRootIds() {
+    List<Integer> roots = new ArrayList<>();
+    for (T root : getRoots()) {
+      roots.add(index.getId(root));
+    }
+    return roots;
+  }
+
   /**
    * Performs an iterative breadth-first search on the graph and returns a list of vertices visited
    * in the search order.
@@ -206,35 +797,29 @@ public class Graph<T extends Comparable<T>> {
    */
   public List<T> iterativeBreadthFirstSearch() {
     List<T> result = new ArrayList<>();
-    Set<T> visited = new HashSet<>();
-    Queue<T> queue = new Queue<>();
+    boolean[] visited = new boolean[index.size()];
+    IntQueue queue = new IntQueue();
 
-    // Choose a starting vertex
-    // Assuming you have a method to get the starting vertex, let's call it getStartingVertex()
-    Set<T> roots = getRoots();
-    for (T startingVertex : roots) {
+    for (int startingVertex : getRootIds()) {
 
       // Enqueue the starting vertex and mark it as visited
       queue.enqueue(startingVertex);
-      visited.add(startingVertex);
+      visited[startingVertex] = true;
 
       while (!queue.isEmpty()) {
         // Dequeue a vertex from the queue
-        T vertex = queue.dequeue();
+        int vertex = queue.dequeue();
 
         // Process the vertex (e.g., add it to the result list)
-        result.add(vertex);
+        result.add(index.getVertex(vertex));
 
-        // Get the adjacent vertices of the current vertex
-        List<T> adjacentVertices = getAdjacentVertices(vertex);
-        ListSorter<T> sorter = new ListSorter<>();
-        sorter.bubbleSort(adjacentVertices);
-
-        for (T adjacentVertex : adjacentVertices) {
-          if (!visited.contains(adjacentVertex)) {
+        // Visit the adjacent vertices of the current vertex, which are stored in ascending order
+        for (int i = index.getOutStart(vertex); i < index.getOutEnd(vertex); i++) {
+          int adjacentVertex = index.getOutTarget(i);
+          if (!visited[adjacentVertex]) {
             // Enqueue the adjacent vertex if it hasn't been visited
             queue.enqueue(adjacentVertex);
-            visited.add(adjacentVertex);
+            visited[adjacentVertex] = true;
           }
         }
       }
@@ -243,15 +828,24 @@ public class Graph<T extends Comparable<T>> {
     return result;
   }
 
-  private List<T> getAdjacentVertices(T vertex) {
-    // return list of adjacent vertices
-    List<T> adjacentVertices = new ArrayList<T>();
-    for (Edge<T> edge : edges) {
-      if (edge.getSource().equals(vertex)) {
-        adjacentVertices.add(edge.getDestination());
-      }
+  /**
+   * Performs a breadth-first search from every root at once, expanding each level in parallel on
+   * the given pool. Unlike {@link #iterativeBreadthFirstSearch()}, which searches from one root at
+   * a time, every vertex is placed at its distance from the nearest root.
+   *
+   * @param pool the pool to expand each level on
+   * @return the level and parent of every vertex that was reached
+   */
+  public BreadthFirstLevels<T> parallelBreadthFirstSearch(ForkJoinPool pool) {
+    List<Integer> rootIds = getRootIds();
+    int[] roots = new int[rootIds.size()];
+    for (int i = 0; i < roots.length; i++) {
+      roots[i] = rootIds.get(i);
     }
-    return adjacentVertices;
+
+    ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(index, pool);
+    search.run(roots);
+    return new BreadthFirstLevels<>(index, search.getLevels(), search.getParents());
   }
 
   /**
@@ -262,35 +856,29 @@ public class Graph<T extends Comparable<T>> {
    */
   public List<T> iterativeDepthFirstSearch() {
     List<T> result = new ArrayList<>();
-    Set<T> visited = new HashSet<>();
-    Stack<T> stack = new Stack<>();
+    boolean[] visited = new boolean[index.size()];
+    IntStack stack = new IntStack();
 
-    // Choose a starting vertex
-    // Assuming you have a method to get the starting vertex, let's call it getStartingVertex()
-    Set<T> roots = getRoots();
-    for (T startingVertex : roots) {
+    for (int startingVertex : getRootIds()) {
 
       // Push the starting vertex onto the stack and mark it as visited
       stack.push(startingVertex);
-      visited.add(startingVertex);
+      visited[startingVertex] = true;
 
       while (!stack.isEmpty()) {
         // Pop a vertex from the stack
-        T vertex = stack.pop();
+        int vertex = stack.pop();
 
         // Process the vertex (e.g., add it to the result list)
-        result.add(vertex);
-
-        // Get the adjacent vertices of the current vertex
-        List<T> adjacentVertices = getAdjacentVertices(vertex);
-        ListDescender<T> sorter = new ListDescender<>();
-        sorter.bubbleSort(adjacentVertices);
+        result.add(index.getVertex(vertex));
 
-        for (T adjacentVertex : adjacentVertices) {
-          if (!visited.contains(adjacentVertex)) {
+        // Visit the adjacent vertices of the current vertex in descending order
+        for (int i = index.getOutEnd(vertex) - 1; i >= index.getOutStart(vertex); i--) {
+          int adjacentVertex = index.getOutTarget(i);
+          if (!visited[adjacentVertex]) {
             // Push the adjacent vertex onto the stack if it hasn't been visited
             stack.push(adjacentVertex);
-            visited.add(adjacentVertex);
+            visited[adjacentVertex] = true;
           }
         }
       }
@@ -303,79 +891,120 @@ public class Graph<T extends Comparable<T>> {
    * Performs a recursive breadth-first search on the graph and returns a list of vertices visited
    * in the search order.
    *
+   * <p>Each step of the recursion ends by calling itself on the next vertex in the queue. Rather
+   * than growing the call stack once per vertex, each step returns that next vertex as its
+   * continuation and this method keeps calling the step until there is nothing left to visit, so
+   * the search works at any depth.
+   *
    * @return a list of vertices visited during the recursive breadth-first search
    */
   public List<T> recursiveBreadthFirstSearch() {
     List<T> result = new ArrayList<>();
-    Set<T> visited = new HashSet<>();
-    Queue<T> queue = new Queue<>();
+    boolean[] visited = new boolean[index.size()];
+    IntQueue queue = new IntQueue();
 
-    // Choose a starting vertex
-    // Assuming you have a method to get the starting vertex, let's call it getStartingVertex()
-    Set<T> roots = getRoots();
-    for (T startingVertex : roots) {
-      recursiveSearchBreadth(startingVertex, visited, queue, result);
+    for (int startingVertex : getRootIds()) {
+      int vertex = startingVertex;
+      while (vertex != -1) {
+        vertex = recursiveSearchBreadth(vertex, visited, queue, result);
+      }
     }
 
     return result;
   }
 
-  private void recursiveSearchBreadth(T vertex, Set<T> visited, Queue<T> queue, List<T> result) {
-    visited.add(vertex);
-    result.add(vertex);
-
-    // Get the adjacent vertices of the current vertex
-    List<T> adjacentVertices = getAdjacentVertices(vertex);
-    ListSorter<T> sorter = new ListSorter<>();
-    sorter.bubbleSort(adjacentVertices);
-
-    for (T adjacentVertex : adjacentVertices) {
-      if (!visited.contains(adjacentVertex)) {
-        visited.add(adjacentVertex);
+  /**
+   * Visits one vertex of the recursive breadth-first search.
+   *
+   * @param vertex the vertex to visit
+   * @param visited the verticies that have been visited or queued
+   * @param queue the verticies waiting to be visited
+   * @param result the search order so far
+   * @return the next vertex to visit, or {@code -1} if the queue is empty
+   */
+  private int recursiveSearchBreadth(
+      int vertex, boolean[] visited, IntQueue queue, List<T> result) {
+    visited[vertex] = true;
+    result.add(index.getVertex(vertex));
+
+    // Visit the adjacent vertices of the current vertex, which are stored in ascending order
+    for (int i = index.getOutStart(vertex); i < index.getOutEnd(vertex); i++) {
+      int adjacentVertex = index.getOutTarget(i);
+      if (!visited[adjacentVertex]) {
+        visited[adjacentVertex] = true;
         queue.enqueue(adjacentVertex);
       }
     }
 
-    // Process the next vertex in the queue recursively
-    if (!queue.isEmpty()) {
-      T nextVertex = queue.dequeue();
-      recursiveSearchBreadth(nextVertex, visited, queue, result);
-    }
+    // Continue with the next vertex in the queue
+    return queue.isEmpty() ? -1 : queue.dequeue();
   }
 
   /**
    * Performs a recursive depth-first search on the graph and returns a list of vertices visited in
    * the search order.
    *
+   * <p>The recursion is unrolled onto an explicit stack of frames, each holding a vertex and the
+   * position of the next neighbour it will descend into, so the search produces the same order as
+   * the recursive definition without overflowing the call stack on long paths.
+   *
    * @return a list of vertices visited during the recursive depth-first search
    */
   public List<T> recursiveDepthFirstSearch() {
     List<T> result = new ArrayList<>();
-    Set<T> visited = new HashSet<>();
+    boolean[] visited = new boolean[index.size()];
+    IntStack verticies = new IntStack();
+    IntStack positions = new IntStack();
 
-    // Choose a starting vertex
-    // Assuming you have a method to get the starting vertex, let's call it getStartingVertex()
-    Set<T> roots = getRoots();
-    for (T startingVertex : roots) {
-      recursiveSearchDepth(startingVertex, visited, result);
+    for (int startingVertex : getRootIds()) {
+      recursiveSearchDepth(startingVertex, visited, result, verticies, positions);
     }
 
     return result;
   }
 
-  private void recursiveSearchDepth(T vertex, Set<T> visited, List<T> result) {
-    visited.add(vertex);
-    result.add(vertex);
-
-    // Get the adjacent vertices of the current vertex
-    List<T> adjacentVertices = getAdjacentVertices(vertex);
-    ListSorter<T> sorter = new ListSorter<>();
-    sorter.bubbleSort(adjacentVertices);
+  private void recursiveSearchDepth(
+      int startingVertex,
+      boolean[] visited,
+      List<T> result,
+      IntStack verticies,
+      IntStack positions) {
+    enterDepth(startingVertex, visited, result, verticies, positions);
+
+    while (!verticies.isEmpty()) {
+      int vertex = verticies.peek();
+      int position = positions.pop();
+
+      // Skip the adjacent vertices that were visited since this frame was last resumed
+      while (position < index.getOutEnd(vertex) && visited[index.getOutTarget(position)]) {
+        position++;
+      }
 
-    for (T adjacentVertex : adjacentVertices) {
-      if (!visited.contains(adjacentVertex)) {
-        recursiveSearchDepth(adjacentVertex, visited, result);
+      if (position < index.getOutEnd(vertex)) {
+        // Resume this frame after the neighbour once the call on the neighbour returns
+        positions.push(position + 1);
+        enterDepth(index.getOutTarget(position), visited, result, verticies, positions);
+      } else {
+        // Every neighbour has been visited, so return from this frame
+        verticies.pop();
       }
     }
   }
+
+  /**
+   * Visits a vertex of the recursive depth-first search and pushes its frame.
+   *
+   * @param vertex the vertex to visit
+   * @param visited the verticies that have been visited
+   * @param result the search order so far
+   * @param verticies the vertex of each frame
+   * @param positions the position of the next neighbour of each frame
+   */
+  private void enterDepth(
+      int vertex, boolean[] visited, List<T> result, IntStack verticies, IntStack positions) {
+    visited[vertex] = true;
+    result.add(index.getVertex(vertex));
+    verticies.push(vertex);
+    positions.push(index.getOutStart(vertex));
+  }
 }
@@ -0,0 +1,128 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the verticies and edges of a graph one at a time and builds the graph from them, without
+ * keeping an {@link Edge} object for every edge along the way.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class GraphBuilder<T extends Comparable<T>> {
+  private static final int INITIAL_CAPACITY = 16;
+
+  // the largest array that every virtual machine can allocate
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private final List<T> verticies = new ArrayList<>();
+  private final Map<T, Integer> ids = new HashMap<>();
+
+  private int[] sources = new int[INITIAL_CAPACITY];
+  private int[] destinations = new int[INITIAL_CAPACITY];
+  private int edgeCount;
+
+  /**
+   * Adds a vertex to the graph, if it has not been added already.
+   *
+   * @param vertex the vertex to add
+   * @return the id of the vertex, in the order the verticies were first added
+   */
+  public int addVertex(T vertex) {
+    Integer id = ids.get(vertex);
+    if (id == null) {
+      id = verticies.size();
+      verticies.add(vertex);
+      ids.put(vertex, id);
+    }
+    return id;
+  }
+
+  /**
+   * Adds an edge to the graph, adding its verticies if they have not been added already. Adding the
+   * same edge more than once has no further effect.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   */
+  public void addEdge(T source, T destination) {
+    addEdge(addVertex(source), addVertex(destination));
+  }
+
+  /**
+   * Adds an edge between two verticies that have already been added. Adding the same edge more
+   * than once has no further effect.
+   *
+   * @param sourceId the id of the source vertex, as returned by {@link #addVertex(Comparable)}
+   * @param destinationId the id of the destination vertex
+   */
+  public void addEdge(int sourceId, int destinationId) {
+    if (edgeCount == sources.length) {
+      grow(edgeCount + 1L);
+    }
+    sources[edgeCount] = sourceId;
+    destinations[edgeCount] = destinationId;
+    edgeCount++;
+  }
+
+  /**
+   * Grows the edge arrays to hold at least a number of edges, doubling them where there is room.
+   *
+   * @param needed the number of edges the arrays must hold
+   * @throws IllegalStateException if that is more edges than an array can hold
+   */
+  private void grow(long needed) {
+    if (needed > MAX_CAPACITY) {
+      throw new IllegalStateException(
+          "Cannot hold " + needed + " edges, the most there can be is " + MAX_CAPACITY);
+    }
+    int capacity = (int) Math.max(needed, Math.min(MAX_CAPACITY, sources.length * 2L));
+    sources = Arrays.copyOf(sources, capacity);
+    destinations = Arrays.copyOf(destinations, capacity);
+  }
+
+  /**
+   * Adds every vertex and edge of another builder, as if they had been added to this builder in the
+   * same order. The verticies of the other builder are given new ids as they are added.
+   *
+   * @param other the builder to add from, which is left unchanged
+   */
+  public void addAll(GraphBuilder<T> other) {
+    int[] renumbered = new int[other.verticies.size()];
+    for (int id = 0; id < renumbered.length; id++) {
+      renumbered[id] = addVertex(other.verticies.get(id));
+    }
+
+    if ((long) edgeCount + other.edgeCount > sources.length) {
+      grow((long) edgeCount + other.edgeCount);
+    }
+    for (int edge = 0; edge < other.edgeCount; edge++) {
+      sources[edgeCount] = renumbered[other.sources[edge]];
+      destinations[edgeCount] = renumbered[other.destinations[edge]];
+      edgeCount++;
+    }
+  }
+
+  /**
+   * Builds the adjacency index of the verticies and edges added so far. The builder must not be
+   * used again afterwards.
+   *
+   * @return the index
+   */
+  public AdjacencyIndex<T> buildIndex() {
+    return new AdjacencyIndex<>(verticies, ids, sources, destinations, edgeCount);
+  }
+
+  /**
+   * Builds the graph of the verticies and edges added so far. The builder must not be used again
+   * afterwards.
+   *
+   * @return the graph
+   */
+  public Graph<T> build() {
+    return new Graph<>(buildIndex());
+  }
+}
@@ -0,0 +1,402 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A compact binary snapshot of a graph of strings, holding its vertex table, its compressed rows,
+ * its edge table and the relation properties that are known about it. Loading a snapshot maps the
+ * file into memory and copies each array out of it in bulk, so there is nothing to parse.
+ *
+ * <p>The file is little-endian and laid out as a header (magic number and format version as ints,
+ * the size and modification time in nanoseconds of the file the graph was read from as longs, then
+ * vertex count, edge count, known properties and property values as ints), the byte offset of each
+ * vertex name, the UTF-8 names themselves padded to a multiple of eight bytes, the outgoing offsets
+ * and rows, the incoming offsets and rows, the length of the edge table, and the edge table.
+ */
+public class GraphSnapshot {
+  private static final int MAGIC = 0x47534E50;
+  private static final int VERSION = 2;
+  private static final int HEADER_BYTES = 6 * Integer.BYTES + 2 * Long.BYTES;
+
+  // the largest region that is mapped at once, as a mapping cannot exceed 2 GB
+  private static final int MAX_MAPPING = 1 << 30;
+  private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+  private GraphSnapshot() {}
+
+  /**
+   * Writes a snapshot of a graph. The reflexive, symmetric and anti-symmetric properties are
+   * checked first, as each takes a single pass over the edges; transitivity and equivalence are
+   * only stored if they are already known. The snapshot is written to a temporary file of its own
+   * which is then atomically moved into place, so a reader never sees a partial snapshot, even
+   * while other threads are writing the same one.
+   *
+   * @param graph the graph to write
+   * @param path the file to write the snapshot to
+   * @param sourceSize the size of the file the graph was read from, before it was read
+   * @param sourceModified the time that file was last modified, before it was read
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(
+      Graph<String> graph, Path path, long sourceSize, FileTime sourceModified)
+      throws IOException {
+    graph.isReflexive();
+    graph.isSymmetric();
+    graph.isAntiSymmetric();
+
+    int known = 0;
+    int values = 0;
+    for (RelationProperty property : RelationProperty.values()) {
+      Boolean value = graph.getRememberedProperty(property);
+      if (value != null) {
+        known |= 1 << property.ordinal();
+        values |= value ? 1 << property.ordinal() : 0;
+      }
+    }
+
+    AdjacencyIndex<String> index = graph.index;
+    byte[][] names = new byte[index.size()][];
+    int[] nameOffsets = new int[index.size() + 1];
+    for (int id = 0; id < index.size(); id++) {
+      names[id] = index.getVertex(id).getBytes(StandardCharsets.UTF_8);
+      nameOffsets[id + 1] = nameOffsets[id] + names[id].length;
+    }
+
+    // a file of its own, so writers of the same snapshot cannot overwrite each other's work
+    Path directory = path.toAbsolutePath().getParent();
+    Path temporary = Files.createTempFile(directory, path.getFileName() + ".", ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        ByteBuffer buffer =
+            ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putLong(sourceSize).putLong(sourceModified.to(TimeUnit.NANOSECONDS));
+        buffer.putInt(index.size()).putInt(index.getEdgeCount());
+        buffer.putInt(known).putInt(values);
+
+        writeInts(channel, buffer, nameOffsets);
+        for (byte[] name : names) {
+          writeBytes(channel, buffer, name);
+        }
+        writeBytes(channel, buffer, new byte[padding(nameOffsets[index.size()])]);
+
+        writeInts(channel, buffer, index.getOutOffsets());
+        writeInts(channel, buffer, index.getOutTargets());
+        writeInts(channel, buffer, index.getInOffsets());
+        writeInts(channel, buffer, index.getInTargets());
+
+        ensureSpace(channel, buffer, Integer.BYTES);
+        buffer.putInt(index.getEdgeTable().length);
+        writeLongs(channel, buffer, index.getEdgeTable());
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      Files.move(
+          temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Reads a graph from a snapshot, as long as it was written from a file of exactly the given size
+   * and modification time.
+   *
+   * @param path the snapshot file
+   * @param sourceSize the size that the file the graph was read from has now
+   * @param sourceModified the time that file was last modified
+   * @return the graph, with the properties stored in the snapshot already remembered
+   * @throws IOException if the file cannot be read, is not a valid snapshot of this format, or was
+   *     written from a different version of the file
+   */
+  public static Graph<String> read(Path path, long sourceSize, FileTime sourceModified)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = map(channel, 0, HEADER_BYTES);
+      if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+        throw new IOException("Not a graph snapshot: " + path);
+      }
+      if (header.getLong() != sourceSize
+          || header.getLong() != sourceModified.to(TimeUnit.NANOSECONDS)) {
+        throw new IOException("Graph snapshot of a different version of its file: " + path);
+      }
+      int vertexCount = header.getInt();
+      int edgeCount = header.getInt();
+      int known = header.getInt();
+      int values = header.getInt();
+
+      // check every count and offset before it is used to size an array, so a damaged header
+      // fails here rather than allocating something absurd
+      if (vertexCount < 0 || edgeCount < 0) {
+        throw corrupt(path);
+      }
+      long position = HEADER_BYTES;
+      checkRemaining(channel, position, (vertexCount + 1L) * Integer.BYTES, path);
+      int[] nameOffsets = new int[vertexCount + 1];
+      position = readInts(channel, position, nameOffsets);
+      checkOffsets(nameOffsets, channel.size() - position, path);
+
+      int nameBytes = nameOffsets[vertexCount];
+      ByteBuffer names = map(channel, position, nameBytes);
+      List<String> verticies = new ArrayList<>(vertexCount);
+      byte[] name = new byte[0];
+      for (int id = 0; id < vertexCount; id++) {
+        int length = nameOffsets[id + 1] - nameOffsets[id];
+        if (name.length < length) {
+          name = new byte[length];
+        }
+        names.get(name, 0, length);
+        verticies.add(new String(name, 0, length, StandardCharsets.UTF_8));
+      }
+      position += nameBytes + padding(nameBytes);
+
+      long rowBytes = (vertexCount + 1L + edgeCount) * Integer.BYTES;
+      checkRemaining(channel, position, 2 * rowBytes, path);
+      int[] outOffsets = new int[vertexCount + 1];
+      int[] outTargets = new int[edgeCount];
+      int[] inOffsets = new int[vertexCount + 1];
+      int[] inTargets = new int[edgeCount];
+      position = readInts(channel, position, outOffsets);
+      position = readInts(channel, position, outTargets);
+      position = readInts(channel, position, inOffsets);
+      position = readInts(channel, position, inTargets);
+      checkRows(outOffsets, outTargets, path);
+      checkRows(inOffsets, inTargets, path);
+
+      int tableLength = map(channel, position, Integer.BYTES).getInt();
+      position += Integer.BYTES;
+      // the edge table is found with a mask, so its length must be a power of two
+      if (Integer.bitCount(tableLength) != 1 || tableLength <= edgeCount) {
+        throw corrupt(path);
+      }
+      checkRemaining(channel, position, (long) tableLength * Long.BYTES, path);
+      long[] edgeTable = new long[tableLength];
+      position = readLongs(channel, position, edgeTable);
+      if (position != channel.size() || countKeys(edgeTable) != edgeCount) {
+        throw corrupt(path);
+      }
+
+      Graph<String> graph =
+          new Graph<>(
+              new AdjacencyIndex<>(
+                  verticies, edgeTable, outOffsets, outTargets, inOffsets, inTargets));
+      for (RelationProperty property : RelationProperty.values()) {
+        if ((known & (1 << property.ordinal())) != 0) {
+          graph.rememberProperty(property, (values & (1 << property.ordinal())) != 0);
+        }
+      }
+      return graph;
+    }
+  }
+
+  private static IOException corrupt(Path path) {
+    return new IOException("Truncated or corrupt graph snapshot: " + path);
+  }
+
+  /**
+   * Checks that the file has a number of bytes left after a position, before an array of that
+   * size is allocated.
+   *
+   * @param channel the file
+   * @param position the position the bytes start at
+   * @param bytes the number of bytes that are needed
+   * @param path the snapshot file, for the error
+   * @throws IOException if the file is too short
+   */
+  private static void checkRemaining(FileChannel channel, long position, long bytes, Path path)
+      throws IOException {
+    if (bytes > channel.size() - position) {
+      throw corrupt(path);
+    }
+  }
+
+  /**
+   * Checks that offsets start at zero, never go down, and end no later than a limit.
+   *
+   * @param offsets the offsets
+   * @param limit the largest that the last offset can be
+   * @param path the snapshot file, for the error
+   * @throws IOException if the offsets are not valid
+   */
+  private static void checkOffsets(int[] offsets, long limit, Path path) throws IOException {
+    if (offsets[0] != 0 || offsets[offsets.length - 1] > limit) {
+      throw corrupt(path);
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] < offsets[i - 1]) {
+        throw corrupt(path);
+      }
+    }
+  }
+
+  /**
+   * Checks that compressed rows cover exactly their targets, and that every target is a vertex, so
+   * the graph cannot fail later on when its rows are walked.
+   *
+   * @param offsets the row offsets, one more than the number of verticies
+   * @param targets the rows
+   * @param path the snapshot file, for the error
+   * @throws IOException if the rows are not valid
+   */
+  private static void checkRows(int[] offsets, int[] targets, Path path) throws IOException {
+    checkOffsets(offsets, targets.length, path);
+    if (offsets[offsets.length - 1] != targets.length) {
+      throw corrupt(path);
+    }
+    int vertexCount = offsets.length - 1;
+    for (int target : targets) {
+      if (target < 0 || target >= vertexCount) {
+        throw corrupt(path);
+      }
+    }
+  }
+
+  /**
+   * Counts the slots of an edge table that hold an edge. A table with as many edges as the graph,
+   * and more slots than that, always has an empty slot for a probe to stop at.
+   *
+   * @param edgeTable the edge table
+   * @return the number of edges in the table
+   */
+  private static int countKeys(long[] edgeTable) {
+    int count = 0;
+    for (long key : edgeTable) {
+      if (key != AdjacencyIndex.EMPTY) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of zero bytes needed after a section so the next one starts on an eight byte
+   * boundary.
+   *
+   * @param bytes the size of the section
+   * @return the padding
+   */
+  private static int padding(int bytes) {
+    return (Long.BYTES - (bytes % Long.BYTES)) % Long.BYTES;
+  }
+
+  private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+    if (position + size > channel.size()) {
+      throw new IOException("Truncated graph snapshot");
+    }
+    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    return mapped.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Fills an array with ints mapped from the file, a region at a time.
+   *
+   * @param channel the file
+   * @param position the position of the first int
+   * @param values the array to fill
+   * @return the position after the last int
+   * @throws IOException if the file cannot be read
+   */
+  private static long readInts(FileChannel channel, long position, int[] values)
+      throws IOException {
+    int done = 0;
+    while (done < values.length) {
+      int count = Math.min(values.length - done, MAX_MAPPING / Integer.BYTES);
+      map(channel, position, (long) count * Integer.BYTES).asIntBuffer().get(values, done, count);
+      position += (long) count * Integer.BYTES;
+      done += count;
+    }
+    return position;
+  }
+
+  /**
+   * Fills an array with longs mapped from the file, a region at a time.
+   *
+   * @param channel the file
+   * @param position the position of the first long
+   * @param values the array to fill
+   * @return the position after the last long
+   * @throws IOException if the file cannot be read
+   */
+  private static long readLongs(FileChannel channel, long position, long[] values)
+      throws IOException {
+    int done = 0;
+    while (done < values.length) {
+      int count = Math.min(values.length - done, MAX_MAPPING / Long.BYTES);
+      map(channel, position, (long) count * Long.BYTES).asLongBuffer().get(values, done, count);
+      position += (long) count * Long.BYTES;
+      done += count;
+    }
+    return position;
+  }
+
+  /**
+   * Writes the buffer out to the file if it does not have room for the given number of bytes.
+   *
+   * @param channel the file
+   * @param buffer the buffer
+   * @param bytes the number of bytes that are about to be put in the buffer
+   * @throws IOException if the file cannot be written
+   */
+  private static void ensureSpace(FileChannel channel, ByteBuffer buffer, int bytes)
+      throws IOException {
+    if (buffer.remaining() < bytes) {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values)
+      throws IOException {
+    int done = 0;
+    while (done < values.length) {
+      ensureSpace(channel, buffer, Integer.BYTES);
+      int count = Math.min(values.length - done, buffer.remaining() / Integer.BYTES);
+      buffer.asIntBuffer().put(values, done, count);
+      buffer.position(buffer.position() + count * Integer.BYTES);
+      done += count;
+    }
+  }
+
+  private static void writeLongs(FileChannel channel, ByteBuffer buffer, long[] values)
+      throws IOException {
+    int done = 0;
+    while (done < values.length) {
+      ensureSpace(channel, buffer, Long.BYTES);
+      int count = Math.min(values.length - done, buffer.remaining() / Long.BYTES);
+      buffer.asLongBuffer().put(values, done, count);
+      buffer.position(buffer.position() + count * Long.BYTES);
+      done += count;
+    }
+  }
+
+  private static void writeBytes(FileChannel channel, ByteBuffer buffer, byte[] values)
+      throws IOException {
+    int done = 0;
+    while (done < values.length) {
+      ensureSpace(channel, buffer, 1);
+      int count = Math.min(values.length - done, buffer.remaining());
+      buffer.put(values, done, count);
+      done += count;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** A queue of primitive ints, backed by a growable ring buffer so that no value is boxed. */
+public class IntQueue {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] elements;
+  private int head;
+  private int size;
+
+  /** Constructs an empty queue. */
+  public IntQueue() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty queue that can hold at least the given number of values before growing.
+   *
+   * @param capacity the number of values to make room for
+   */
+  public IntQueue(int capacity) {
+    this.elements = new int[Integer.highestOneBit(Math.max(capacity, INITIAL_CAPACITY) - 1) << 1];
+  }
+
+  /**
+   * Adds the specified value to the end of the queue.
+   *
+   * @param value the value to be added to the queue
+   */
+  public void enqueue(int value) {
+    if (size == elements.length) {
+      grow();
+    }
+    elements[(head + size) & (elements.length - 1)] = value;
+    size++;
+  }
+
+  /**
+   * Removes and returns the value at the front of the queue.
+   *
+   * @return the value at the front of the queue
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public int dequeue() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Queue is empty");
+    }
+    int value = elements[head];
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return value;
+  }
+
+  /**
+   * Checks if the queue is empty.
+   *
+   * @return {@code true} if the queue is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gets the number of values in the queue.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Doubles the capacity of the buffer. The head stays where it is, and the values that had wrapped
+   * around to the start are copied to just past the old end, so the queue runs on from the head.
+   */
+  private void grow() {
+    int[] grown = Arrays.copyOf(elements, elements.length * 2);
+    // the values that wrapped around to the start now belong after the old end
+    System.arraycopy(elements, 0, grown, elements.length, head);
+    elements = grown;
+  }
+}
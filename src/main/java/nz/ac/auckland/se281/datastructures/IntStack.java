@@ -0,0 +1,68 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** A stack of primitive ints, backed by a growable array so that no value is boxed. */
+public class IntStack {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private int[] elements = new int[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Pushes a value onto the top of the stack.
+   *
+   * @param value the value to be pushed onto the stack
+   */
+  public void push(int value) {
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+    elements[size++] = value;
+  }
+
+  /**
+   * Removes and returns the value at the top of the stack.
+   *
+   * @return the value at the top of the stack
+   * @throws NoSuchElementException if the stack is empty
+   */
+  public int pop() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Stack is empty");
+    }
+    return elements[--size];
+  }
+
+  /**
+   * Returns the value at the top of the stack without removing it.
+   *
+   * @return the value at the top of the stack
+   * @throws NoSuchElementException if the stack is empty
+   */
+  public int peek() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("Stack is empty");
+    }
+    return elements[size - 1];
+  }
+
+  /**
+   * Checks if the stack is empty.
+   *
+   * @return {@code true} if the stack is empty, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gets the number of values on the stack.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return size;
+  }
+}
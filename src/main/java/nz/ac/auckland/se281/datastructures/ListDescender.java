@@ -1,5 +1,6 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -11,31 +12,23 @@ import java.util.List;
 public class ListDescender<T extends Comparable<T>> {
 
   /**
-   * Sorts the specified list in descending order using the bubble sort algorithm.
+   * Sorts the specified list in descending order using a stable merge sort (TimSort), which takes
+   * O(n log n) time and only O(n) on lists that are already mostly sorted.
    *
    * @param list the list to be sorted
    */
-  public void bubbleSort(List<T> list) {
-    int n = list.size();
-    boolean swapped;
-
-    for (int i = 0; i < n - 1; i++) {
-      swapped = false;
-
-      for (int j = 0; j < n - i - 1; j++) {
-        if (list.get(j).compareTo(list.get(j + 1)) < 0) {
-          // Swap list[j] and list[j+1]
-          T temp = list.get(j);
-          list.set(j, list.get(j + 1));
-          list.set(j + 1, temp);
-          swapped = true;
-        }
-      }
+  public void sort(List<T> list) {
+    list.sort(Collections.reverseOrder());
+  }
 
-      // If no two elements were swapped in the inner loop, the list is already sorted
-      if (!swapped) {
-        break;
-      }
-    }
+  /**
+   * Sorts the specified list in descending order.
+   *
+   * @param list the list to be sorted
+   * @deprecated the bubble sort took quadratic time, so this now just calls {@link #sort(List)}.
+   */
+  @Deprecated
+  public void bubbleSort(List<T> list) {
+    sort(list);
   }
 }
@@ -0,0 +1,230 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A level-synchronous breadth-first search that expands each level on a fork-join pool. The
+ * frontier is kept as a bitset, and each level is expanded either top-down, from the frontier along
+ * outgoing edges, or bottom-up, from every unvisited vertex along incoming edges, whichever is
+ * expected to look at fewer edges.
+ *
+ * <p>The parent of each vertex is its smallest predecessor in the level before it, however the
+ * work is split between threads, so the result is always the same.
+ */
+class ParallelBreadthFirstSearch {
+  // switch to bottom-up once the frontier has more than 1/ALPHA of the unexplored edges, and back
+  // to top-down once it has fewer than 1/BETA of the verticies
+  private static final int ALPHA = 14;
+  private static final int BETA = 24;
+
+  // the number of bitset words, of 64 verticies each, that one task expands without splitting
+  private static final int LEAF_WORDS = 64;
+
+  private static final LongBinaryOperator OR = (left, right) -> left | right;
+
+  private final AdjacencyIndex<?> index;
+  private final ForkJoinPool pool;
+  private final int words;
+
+  private final int[] levels;
+  private final AtomicIntegerArray parents;
+
+  private long[] frontier;
+  private AtomicLongArray next;
+  private int depth;
+
+  /**
+   * Creates a search over the given index.
+   *
+   * @param index the index to search
+   * @param pool the pool to expand each level on
+   */
+  ParallelBreadthFirstSearch(AdjacencyIndex<?> index, ForkJoinPool pool) {
+    this.index = index;
+    this.pool = pool;
+    this.words = (index.size() + 63) >>> 6;
+    this.levels = new int[index.size()];
+    this.parents = new AtomicIntegerArray(index.size());
+  }
+
+  /**
+   * Searches from every root at once, so each vertex ends up at its distance from the nearest root.
+   *
+   * @param roots the ids of the verticies in the first level
+   */
+  void run(int[] roots) {
+    Arrays.fill(levels, -1);
+    for (int vertex = 0; vertex < index.size(); vertex++) {
+      parents.set(vertex, -1);
+    }
+
+    frontier = new long[words];
+    int frontierCount = 0;
+    long frontierEdges = 0;
+    for (int root : roots) {
+      if (levels[root] == -1) {
+        levels[root] = 0;
+        frontier[root >>> 6] |= 1L << root;
+        frontierCount++;
+        frontierEdges += index.getOutDegree(root);
+      }
+    }
+
+    long unexploredEdges = index.getEdgeCount() - frontierEdges;
+    boolean bottomUp = false;
+    depth = 0;
+    while (frontierCount > 0) {
+      if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+        bottomUp = true;
+      } else if (bottomUp && frontierCount < index.size() / BETA) {
+        bottomUp = false;
+      }
+
+      next = new AtomicLongArray(words);
+      frontierEdges = pool.invoke(new Expansion(0, words, bottomUp));
+      unexploredEdges -= frontierEdges;
+
+      frontierCount = 0;
+      for (int word = 0; word < words; word++) {
+        frontier[word] = next.get(word);
+        frontierCount += Long.bitCount(frontier[word]);
+      }
+      depth++;
+    }
+  }
+
+  /**
+   * Gets the level of every vertex, or -1 for the verticies that could not be reached.
+   *
+   * @return the levels, indexed by vertex id
+   */
+  int[] getLevels() {
+    return levels;
+  }
+
+  /**
+   * Gets the parent of every vertex, or -1 for the roots and the verticies that could not be
+   * reached.
+   *
+   * @return the parents, indexed by vertex id
+   */
+  int[] getParents() {
+    int[] result = new int[parents.length()];
+    for (int vertex = 0; vertex < result.length; vertex++) {
+      result[vertex] = parents.get(vertex);
+    }
+    return result;
+  }
+
+  private boolean inFrontier(int vertex) {
+    return (frontier[vertex >>> 6] & (1L << vertex)) != 0;
+  }
+
+  /**
+   * Follows the outgoing edges of the frontier verticies in a range of words.
+   *
+   * @param from the first word
+   * @param to the word after the last
+   * @return the number of edges leaving the verticies that were reached
+   */
+  private long expandTopDown(int from, int to) {
+    long edges = 0;
+    for (int word = from; word < to; word++) {
+      long bits = frontier[word];
+      while (bits != 0) {
+        int vertex = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+
+        for (int i = index.getOutStart(vertex); i < index.getOutEnd(vertex); i++) {
+          int target = index.getOutTarget(i);
+          int level = levels[target];
+          if (level != -1 && level <= depth) {
+            continue;
+          }
+
+          if (parents.compareAndSet(target, -1, vertex)) {
+            // the first thread to reach the vertex adds it to the next level
+            levels[target] = depth + 1;
+            next.getAndAccumulate(target >>> 6, 1L << target, OR);
+            edges += index.getOutDegree(target);
+          } else {
+            // others only lower its parent, so the smallest predecessor wins
+            int parent = parents.get(target);
+            while (vertex < parent && !parents.compareAndSet(target, parent, vertex)) {
+              parent = parents.get(target);
+            }
+          }
+        }
+      }
+    }
+    return edges;
+  }
+
+  /**
+   * Looks for a frontier vertex among the predecessors of each unvisited vertex in a range of
+   * words. Each word of the next level is only written by the task that owns it.
+   *
+   * @param from the first word
+   * @param to the word after the last
+   * @return the number of edges leaving the verticies that were reached
+   */
+  private long expandBottomUp(int from, int to) {
+    long edges = 0;
+    for (int word = from; word < to; word++) {
+      long bits = 0;
+      int end = Math.min(index.size(), (word + 1) << 6);
+      for (int vertex = word << 6; vertex < end; vertex++) {
+        if (levels[vertex] != -1) {
+          continue;
+        }
+
+        // the incoming rows are in ascending order, so the first match is the smallest
+        for (int i = index.getInStart(vertex); i < index.getInEnd(vertex); i++) {
+          int source = index.getInTarget(i);
+          if (inFrontier(source)) {
+            parents.set(vertex, source);
+            levels[vertex] = depth + 1;
+            bits |= 1L << vertex;
+            edges += index.getOutDegree(vertex);
+            break;
+          }
+        }
+      }
+      next.set(word, bits);
+    }
+    return edges;
+  }
+
+  /** Expands a range of words of the current level, splitting it between tasks. */
+  private class Expansion extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final boolean bottomUp;
+
+    private Expansion(int from, int to, boolean bottomUp) {
+      this.from = from;
+      this.to = to;
+      this.bottomUp = bottomUp;
+    }
+
+    @Override
+    protected Long compute() {
+      if (to - from <= LEAF_WORDS) {
+        return bottomUp ? expandBottomUp(from, to) : expandTopDown(from, to);
+      }
+
+      int middle = (from + to) >>> 1;
+      Expansion left = new Expansion(from, middle, bottomUp);
+      left.fork();
+      long right = new Expansion(middle, to, bottomUp).compute();
+      return left.join() + right;
+    }
+  }
+}
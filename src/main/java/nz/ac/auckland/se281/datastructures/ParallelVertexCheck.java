@@ -0,0 +1,72 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+
+/**
+ * Checks that a condition holds at every vertex by splitting the verticies into ranges on a
+ * fork-join pool. The tasks share a flag that is raised by the first one to find a counter-example,
+ * after which every task stops as soon as it next looks at the flag.
+ */
+class ParallelVertexCheck extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  // the number of verticies that one task checks without splitting
+  private static final int LEAF_SIZE = 1 << 12;
+
+  // the number of verticies checked between looks at the shared flag
+  private static final int CANCEL_INTERVAL = 64;
+
+  private final IntPredicate holds;
+  private final AtomicBoolean failed;
+  private final int from;
+  private final int to;
+
+  private ParallelVertexCheck(IntPredicate holds, AtomicBoolean failed, int from, int to) {
+    this.holds = holds;
+    this.failed = failed;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Checks that a condition holds at every vertex.
+   *
+   * @param pool the pool to check on
+   * @param size the number of verticies
+   * @param holds the condition, given the id of a vertex
+   * @return {@code true} if the condition holds at every vertex, {@code false} otherwise
+   */
+  static boolean allMatch(ForkJoinPool pool, int size, IntPredicate holds) {
+    AtomicBoolean failed = new AtomicBoolean();
+    pool.invoke(new ParallelVertexCheck(holds, failed, 0, size));
+    return !failed.get();
+  }
+
+  @Override
+  protected void compute() {
+    if (failed.get()) {
+      return;
+    }
+
+    if (to - from > LEAF_SIZE) {
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new ParallelVertexCheck(holds, failed, from, middle),
+          new ParallelVertexCheck(holds, failed, middle, to));
+      return;
+    }
+
+    for (int vertex = from; vertex < to; vertex++) {
+      if ((vertex - from) % CANCEL_INTERVAL == 0 && failed.get()) {
+        return;
+      }
+      if (!holds.test(vertex)) {
+        failed.set(true);
+        return;
+      }
+    }
+  }
+}
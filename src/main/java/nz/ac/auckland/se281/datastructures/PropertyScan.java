@@ -0,0 +1,129 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Counts the self loops of a graph, and the edges that do and do not have a reverse edge, in a
+ * single pass over its {@link AdjacencyIndex}. Reflexivity, symmetry and anti-symmetry can all be
+ * read from these counts.
+ *
+ * <p>An edge from a vertex has a reverse edge exactly when its destination is also the source of an
+ * edge into the vertex. The outgoing and incoming rows of each vertex are both sorted, so they are
+ * merged from start to end to find the verticies they share, rather than looking up the reverse of
+ * each edge in the edge table. On a pool, the verticies are split into ranges whose counts are
+ * added together.
+ */
+class PropertyScan extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  // the number of verticies that one task scans without splitting
+  private static final int LEAF_SIZE = 1 << 12;
+
+  private final AdjacencyIndex<?> index;
+  private final int from;
+  private final int to;
+
+  private int selfLoops;
+  private int matchedEdges;
+  private int unmatchedEdges;
+
+  private PropertyScan(AdjacencyIndex<?> index, int from, int to) {
+    this.index = index;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * Scans every vertex of an index.
+   *
+   * @param index the index of the graph
+   * @param pool the pool to scan ranges of verticies in parallel with, or {@code null} to use this
+   *     thread
+   * @return the scan, holding the counts
+   */
+  static PropertyScan scan(AdjacencyIndex<?> index, ForkJoinPool pool) {
+    PropertyScan scan = new PropertyScan(index, 0, index.size());
+    if (pool == null || index.size() <= LEAF_SIZE) {
+      scan.scanRange();
+    } else {
+      pool.invoke(scan);
+    }
+    return scan;
+  }
+
+  /**
+   * Gets the number of edges from a vertex to itself.
+   *
+   * @return the number of self loops
+   */
+  int getSelfLoops() {
+    return selfLoops;
+  }
+
+  /**
+   * Gets the number of edges between two different verticies that have a reverse edge.
+   *
+   * @return the number of matched edges, which counts both edges of each pair
+   */
+  int getMatchedEdges() {
+    return matchedEdges;
+  }
+
+  /**
+   * Gets the number of edges between two different verticies that have no reverse edge.
+   *
+   * @return the number of unmatched edges
+   */
+  int getUnmatchedEdges() {
+    return unmatchedEdges;
+  }
+
+  @Override
+  protected void compute() {
+    if (to - from <= LEAF_SIZE) {
+      scanRange();
+      return;
+    }
+
+    int middle = (from + to) >>> 1;
+    PropertyScan left = new PropertyScan(index, from, middle);
+    PropertyScan right = new PropertyScan(index, middle, to);
+    invokeAll(left, right);
+    selfLoops = left.selfLoops + right.selfLoops;
+    matchedEdges = left.matchedEdges + right.matchedEdges;
+    unmatchedEdges = left.unmatchedEdges + right.unmatchedEdges;
+  }
+
+  /** Scans the range of verticies of this task on the current thread. */
+  private void scanRange() {
+    for (int vertex = from; vertex < to; vertex++) {
+      int out = index.getOutStart(vertex);
+      int outEnd = index.getOutEnd(vertex);
+      int in = index.getInStart(vertex);
+      int inEnd = index.getInEnd(vertex);
+      int shared = 0;
+
+      // every destination that is also a source has a reverse edge, or is the vertex itself
+      while (out < outEnd && in < inEnd) {
+        int destination = index.getOutTarget(out);
+        int source = index.getInTarget(in);
+        if (destination < source) {
+          out++;
+        } else if (destination > source) {
+          in++;
+        } else {
+          if (destination == vertex) {
+            selfLoops++;
+          } else {
+            matchedEdges++;
+          }
+          shared++;
+          out++;
+          in++;
+        }
+      }
+      unmatchedEdges += index.getOutDegree(vertex) - shared;
+    }
+  }
+}
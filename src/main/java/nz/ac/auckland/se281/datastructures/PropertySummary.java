@@ -0,0 +1,82 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The counts that a graph collects about its edges in a single pass, and the relation properties
+ * that can be read from them without looking at the edges again.
+ */
+public class PropertySummary {
+  private final int vertexCount;
+  private final int edgeCount;
+  private final int selfLoopCount;
+  private final int matchedEdgeCount;
+  private final int unmatchedEdgeCount;
+
+  /**
+   * Creates a summary from the counts of a graph.
+   *
+   * @param vertexCount the number of verticies
+   * @param edgeCount the number of edges
+   * @param selfLoopCount the number of edges from a vertex to itself
+   * @param matchedEdgeCount the number of other edges that have a reverse edge
+   * @param unmatchedEdgeCount the number of other edges that have no reverse edge
+   */
+  PropertySummary(
+      int vertexCount,
+      int edgeCount,
+      int selfLoopCount,
+      int matchedEdgeCount,
+      int unmatchedEdgeCount) {
+    this.vertexCount = vertexCount;
+    this.edgeCount = edgeCount;
+    this.selfLoopCount = selfLoopCount;
+    this.matchedEdgeCount = matchedEdgeCount;
+    this.unmatchedEdgeCount = unmatchedEdgeCount;
+  }
+
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  public int getSelfLoopCount() {
+    return selfLoopCount;
+  }
+
+  public int getMatchedEdgeCount() {
+    return matchedEdgeCount;
+  }
+
+  public int getUnmatchedEdgeCount() {
+    return unmatchedEdgeCount;
+  }
+
+  /**
+   * Checks if every vertex has an edge to itself.
+   *
+   * @return {@code true} if the graph is reflexive, {@code false} otherwise
+   */
+  public boolean isReflexive() {
+    return selfLoopCount == vertexCount;
+  }
+
+  /**
+   * Checks if every edge has a reverse edge.
+   *
+   * @return {@code true} if the graph is symmetric, {@code false} otherwise
+   */
+  public boolean isSymmetric() {
+    return unmatchedEdgeCount == 0;
+  }
+
+  /**
+   * Checks if no edge between two different verticies has a reverse edge.
+   *
+   * @return {@code true} if the graph is anti-symmetric, {@code false} otherwise
+   */
+  public boolean isAntiSymmetric() {
+    return matchedEdgeCount == 0;
+  }
+}
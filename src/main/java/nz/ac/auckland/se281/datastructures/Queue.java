@@ -1,18 +1,25 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Arrays;
+
 /**
- * A generic queue data structure.
+ * A generic queue data structure, backed by a growable ring buffer so that no object is allocated
+ * for each element.
  *
  * @param <T> the type of elements held in the queue
  */
 public class Queue<T> {
-  protected Node<T> head;
-  protected Node<T> tail;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] elements;
+  private int head;
+  private int size;
 
   /** Constructs an empty queue. */
   public Queue() {
-    this.head = null;
-    this.tail = null;
+    this.elements = new Object[INITIAL_CAPACITY];
+    this.head = 0;
+    this.size = 0;
   }
 
   /**
@@ -21,17 +28,11 @@ public class Queue<T> {
    * @param data the data to be added to the queue
    */
   public void enqueue(T data) {
-    // create a new node
-    Node<T> newNode = new Node<>(data);
-
-    // if the queue is empty, set the head and tail to the new node
-    if (isEmpty()) {
-      head = newNode;
-      tail = newNode;
-    } else {
-      tail.next = newNode;
-      tail = newNode;
+    if (size == elements.length) {
+      grow();
     }
+    elements[(head + size) & (elements.length - 1)] = data;
+    size++;
   }
 
   /**
@@ -39,24 +40,18 @@ public class Queue<T> {
    *
    * @return the element at the front of the queue, or {@code null} if the queue is empty
    */
+  @SuppressWarnings("unchecked")
   public T dequeue() {
-    // if the queue is empty, return null
     if (isEmpty()) {
-      System.out.println("Queue is empty");
       return null;
     }
 
-    // if the queue is not empty, remove the head node
-    Node<T> nodeToRemove = head;
-    head = head.next;
-
-    // if the queue is now empty, set the tail to null
-    if (head == null) {
-      tail = null;
-    }
-
-    // return the data of the removed node
-    return nodeToRemove.data;
+    T data = (T) elements[head];
+    // clear the slot so the queue does not keep the element alive
+    elements[head] = null;
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return data;
   }
 
   /**
@@ -65,6 +60,28 @@ public class Queue<T> {
    * @return {@code true} if the queue is empty, {@code false} otherwise
    */
   public boolean isEmpty() {
-    return head == null;
+    return size == 0;
+  }
+
+  /**
+   * Gets the number of elements in the queue.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Doubles the capacity of the buffer. The head stays where it is, and the elements that had
+   * wrapped around to the start are copied to just past the old end, so the queue runs on from the
+   * head.
+   */
+  private void grow() {
+    Object[] grown = Arrays.copyOf(elements, elements.length * 2);
+    // the elements that wrapped around to the start now belong after the old end
+    System.arraycopy(elements, 0, grown, elements.length, head);
+    Arrays.fill(grown, 0, head, null);
+    elements = grown;
   }
 }
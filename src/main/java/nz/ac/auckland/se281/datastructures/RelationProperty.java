@@ -0,0 +1,10 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** The properties of a relation that a {@link Graph} can check and remember. */
+public enum RelationProperty {
+  REFLEXIVE,
+  SYMMETRIC,
+  TRANSITIVE,
+  ANTI_SYMMETRIC,
+  EQUIVALENCE
+}
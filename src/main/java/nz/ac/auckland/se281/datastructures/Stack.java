@@ -1,12 +1,18 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Arrays;
+
 /**
- * A stack data structure implementation.
+ * A stack data structure implementation, backed by a growable array so that no object is allocated
+ * for each element.
  *
  * @param <T> the type of elements in the stack
  */
 public class Stack<T> {
-  private Node<T> top;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] elements = new Object[INITIAL_CAPACITY];
+  private int size;
 
   /**
    * Pushes an item onto the top of the stack.
@@ -14,9 +20,10 @@ public class Stack<T> {
    * @param item the item to be pushed onto the stack
    */
   public void push(T item) {
-    Node<T> newNode = new Node<>(item);
-    newNode.next = top;
-    top = newNode;
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, elements.length * 2);
+    }
+    elements[size++] = item;
   }
 
   /**
@@ -24,13 +31,14 @@ public class Stack<T> {
    *
    * @return the item at the top of the stack, or {@code null} if the stack is empty
    */
+  @SuppressWarnings("unchecked")
   public T pop() {
     if (isEmpty()) {
-      System.out.println("Stack is empty");
       return null;
     }
-    T data = top.data;
-    top = top.next;
+    T data = (T) elements[--size];
+    // clear the slot so the stack does not keep the item alive
+    elements[size] = null;
     return data;
   }
 
@@ -39,12 +47,12 @@ public class Stack<T> {
    *
    * @return the item at the top of the stack, or {@code null} if the stack is empty
    */
+  @SuppressWarnings("unchecked")
   public T peek() {
     if (isEmpty()) {
-      System.out.println("Stack is empty");
       return null;
     }
-    return top.data;
+    return (T) elements[size - 1];
   }
 
   /**
@@ -53,6 +61,15 @@ public class Stack<T> {
    * @return {@code true} if the stack is empty, {@code false} otherwise
    */
   public boolean isEmpty() {
-    return top == null;
+    return size == 0;
+  }
+
+  /**
+   * Gets the number of items on the stack.
+   *
+   * @return the number of items
+   */
+  public int size() {
+    return size;
   }
 }
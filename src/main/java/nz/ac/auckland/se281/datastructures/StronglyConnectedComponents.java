@@ -0,0 +1,157 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a graph, found with Tarjan's algorithm. The depth-first
+ * search is driven by explicit stacks rather than recursion, so it takes linear time and a fixed
+ * amount of call stack however long the paths in the graph are.
+ *
+ * <p>Components are numbered in a topological order of the condensation, so every edge between two
+ * components goes from a lower number to a higher one.
+ */
+public class StronglyConnectedComponents {
+  private final int[] component;
+  private final int count;
+  private final boolean[] source;
+
+  /**
+   * Finds the components of the graph in an index.
+   *
+   * @param index the index of the graph
+   */
+  StronglyConnectedComponents(AdjacencyIndex<?> index) {
+    int size = index.size();
+    int[] order = new int[size];
+    int[] low = new int[size];
+    component = new int[size];
+    for (int vertex = 0; vertex < size; vertex++) {
+      order[vertex] = -1;
+      component[vertex] = -1;
+    }
+
+    // a vertex is on the Tarjan stack while it has been ordered but not given a component
+    IntStack stack = new IntStack();
+    IntStack verticies = new IntStack();
+    IntStack positions = new IntStack();
+    int visited = 0;
+    int found = 0;
+
+    // starting from the highest vertex means unrelated components finish in descending order, so
+    // they end up numbered in ascending order
+    for (int start = size - 1; start >= 0; start--) {
+      if (order[start] != -1) {
+        continue;
+      }
+
+      order[start] = low[start] = visited++;
+      stack.push(start);
+      verticies.push(start);
+      positions.push(index.getOutStart(start));
+
+      while (!verticies.isEmpty()) {
+        int vertex = verticies.peek();
+        int position = positions.pop();
+
+        if (position < index.getOutEnd(vertex)) {
+          positions.push(position + 1);
+          int target = index.getOutTarget(position);
+          if (order[target] == -1) {
+            // descend into the target
+            order[target] = low[target] = visited++;
+            stack.push(target);
+            verticies.push(target);
+            positions.push(index.getOutStart(target));
+          } else if (component[target] == -1) {
+            low[vertex] = Math.min(low[vertex], order[target]);
+          }
+          continue;
+        }
+
+        // every edge of the vertex has been followed, so return from it
+        verticies.pop();
+        if (low[vertex] == order[vertex]) {
+          int member;
+          do {
+            member = stack.pop();
+            component[member] = found;
+          } while (member != vertex);
+          found++;
+        }
+        if (!verticies.isEmpty()) {
+          int parent = verticies.peek();
+          low[parent] = Math.min(low[parent], low[vertex]);
+        }
+      }
+    }
+
+    // components are found sinks first, so reversing their numbers gives a topological order
+    count = found;
+    for (int vertex = 0; vertex < size; vertex++) {
+      component[vertex] = count - 1 - component[vertex];
+    }
+
+    source = new boolean[count];
+    Arrays.fill(source, true);
+    for (int vertex = 0; vertex < size; vertex++) {
+      for (int i = index.getOutStart(vertex); i < index.getOutEnd(vertex); i++) {
+        int target = component[index.getOutTarget(i)];
+        if (target != component[vertex]) {
+          source[target] = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the number of components.
+   *
+   * @return the number of components
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the component that a vertex belongs to.
+   *
+   * @param vertex the id of the vertex
+   * @return the number of its component
+   */
+  public int getComponent(int vertex) {
+    return component[vertex];
+  }
+
+  /**
+   * Checks if a component has no edges coming into it from other components.
+   *
+   * @param component the number of the component
+   * @return {@code true} if it is a source of the condensation, {@code false} otherwise
+   */
+  public boolean isSource(int component) {
+    return source[component];
+  }
+
+  /**
+   * Groups the verticies by their component.
+   *
+   * @return the ids of the members of each component in ascending order, indexed by component
+   */
+  public int[][] getMembers() {
+    int[] sizes = new int[count];
+    for (int owner : component) {
+      sizes[owner]++;
+    }
+
+    int[][] members = new int[count][];
+    for (int i = 0; i < count; i++) {
+      members[i] = new int[sizes[i]];
+      sizes[i] = 0;
+    }
+    for (int vertex = 0; vertex < component.length; vertex++) {
+      int owner = component[vertex];
+      members[owner][sizes[owner]++] = vertex;
+    }
+    return members;
+  }
+}
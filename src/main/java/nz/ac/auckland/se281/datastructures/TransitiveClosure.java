@@ -0,0 +1,118 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the transitive closure of a graph as a {@link BitMatrix}, where the bit in row {@code i}
+ * and column {@code j} is set when there is a path of one or more edges from vertex {@code i} to
+ * vertex {@code j}.
+ *
+ * <p>This is Warshall's algorithm taken 64 pivots at a time, one word column of the matrix. The
+ * rows of the pivots are closed first, on their own, and then every other row takes in the pivot
+ * rows it reaches. Once the pivot rows are closed they are only read, so the other rows can be
+ * worked on in parallel, a range of rows per task.
+ */
+class TransitiveClosure {
+  // the number of rows that one task works on without splitting
+  private static final int LEAF_ROWS = 256;
+
+  private TransitiveClosure() {}
+
+  /**
+   * Computes the transitive closure of an index.
+   *
+   * @param index the index of the graph
+   * @param pool the pool to work on the rows in parallel with, or {@code null} to use this thread
+   * @return the closure
+   */
+  static BitMatrix compute(AdjacencyIndex<?> index, ForkJoinPool pool) {
+    int size = index.size();
+    BitMatrix reach = new BitMatrix(size);
+    for (int source = 0; source < size; source++) {
+      for (int i = index.getOutStart(source); i < index.getOutEnd(source); i++) {
+        reach.set(source, index.getOutTarget(i));
+      }
+    }
+
+    for (int pivot = 0; pivot < size; pivot += 64) {
+      int word = pivot >>> 6;
+      int end = Math.min(size, pivot + 64);
+
+      // the pivot rows read each other, so they are closed one at a time
+      for (int row = pivot; row < end; row++) {
+        closeRow(reach, row, word);
+      }
+
+      if (pool == null || size <= LEAF_ROWS) {
+        closeRows(reach, 0, size, word);
+      } else {
+        pool.invoke(new RowRange(reach, 0, size, word));
+      }
+    }
+    return reach;
+  }
+
+  /**
+   * Adds to a row every pivot row it reaches, following pivots that are reached through other
+   * pivots, until no new pivots are found.
+   *
+   * @param reach the matrix
+   * @param row the row to close
+   * @param word the word column of the pivots
+   */
+  private static void closeRow(BitMatrix reach, int row, int word) {
+    long done = 0;
+    long pending = reach.getWord(row, word);
+    while (pending != 0) {
+      long lowest = pending & -pending;
+      done |= lowest;
+      reach.or(row, (word << 6) + Long.numberOfTrailingZeros(lowest));
+      pending = reach.getWord(row, word) & ~done;
+    }
+  }
+
+  /**
+   * Closes a range of rows against the pivots, skipping the pivot rows themselves.
+   *
+   * @param reach the matrix
+   * @param from the first row
+   * @param to the row after the last
+   * @param word the word column of the pivots
+   */
+  private static void closeRows(BitMatrix reach, int from, int to, int word) {
+    for (int row = from; row < to; row++) {
+      if (row >>> 6 != word) {
+        closeRow(reach, row, word);
+      }
+    }
+  }
+
+  /** Closes a range of rows against the pivots, splitting it between tasks. */
+  private static class RowRange extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final BitMatrix reach;
+    private final int from;
+    private final int to;
+    private final int word;
+
+    private RowRange(BitMatrix reach, int from, int to, int word) {
+      this.reach = reach;
+      this.from = from;
+      this.to = to;
+      this.word = word;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= LEAF_ROWS) {
+        closeRows(reach, from, to, word);
+        return;
+      }
+
+      int middle = (from + to) >>> 1;
+      invokeAll(new RowRange(reach, from, middle, word), new RowRange(reach, middle, to, word));
+    }
+  }
+}
@@ -2,6 +2,8 @@ package nz.ac.auckland.se281;
 
 import static nz.ac.auckland.se281.Command.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -290,6 +292,130 @@ public class MainTest {
       assertContains("The graph is NOT an equivalence relation");
     }
 
+    @Test
+    public void T1_C_all_equivalence_classes() throws Exception {
+      runCommands(OPEN_FILE, "c.txt", COMPUTE_ALL_EQUIVALENCE);
+      assertContains("Successfully opened graph from file c.txt");
+      assertContains("[[0], [1, 2, 3]]");
+    }
+
+    @Test
+    public void T1_B_all_equivalence_classes() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", COMPUTE_ALL_EQUIVALENCE);
+      assertContains("Successfully opened graph from file b.txt");
+      assertDoesNotContain("[[");
+    }
+
+    @Test
+    public void T1_A_transitive_closure() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", COMPUTE_CLOSURE);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("[0 -> 1, 0 -> 2, 0 -> 3, 0 -> 4, 0 -> 5, 1 -> 3, 1 -> 4, 1 -> 5]");
+    }
+
+    @Test
+    public void T1_A_reachability() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", CHECK_REACHABILITY, "0", "5", CHECK_REACHABILITY, "2", "3");
+      assertContains("Vertex 5 is reachable from vertex 0");
+      assertContains("Vertex 3 is NOT reachable from vertex 2");
+    }
+
+    @Test
+    public void T1_B_components() throws Exception {
+      runCommands(OPEN_FILE, "b.txt", COMPUTE_COMPONENTS, LIST_COMPONENT_ROOTS);
+      assertContains("Successfully opened graph from file b.txt");
+      assertContains("[[6], [0, 1, 2, 3, 4, 5]]");
+      assertContains("[6]");
+    }
+
+    @Test
+    public void T1_C_add_remove_edges() throws Exception {
+      runCommands(
+          OPEN_FILE,
+          "c.txt",
+          REMOVE_EDGE,
+          "0",
+          "0",
+          CHECK_REFLEXIVITY,
+          ADD_EDGE,
+          "0",
+          "0",
+          ADD_EDGE,
+          "0",
+          "1",
+          CHECK_SYMMETRY,
+          ADD_EDGE,
+          "1",
+          "0",
+          CHECK_SYMMETRY);
+      assertContains("Edge 0 -> 0 was removed");
+      assertContains("The graph is NOT reflexive");
+      assertContains("Edge 0 -> 0 was added");
+      assertContains("The graph is NOT symmetric");
+      assertContains("The graph is symmetric");
+    }
+
+    @Test
+    public void T1_C_equivalence_after_adding_edges() throws Exception {
+      runCommands(
+          OPEN_FILE,
+          "c.txt",
+          ADD_EDGE,
+          "0",
+          "1",
+          ADD_EDGE,
+          "1",
+          "0",
+          CHECK_EQUIVALENCE,
+          ADD_EDGE,
+          "0",
+          "2",
+          ADD_EDGE,
+          "2",
+          "0",
+          ADD_EDGE,
+          "0",
+          "3",
+          ADD_EDGE,
+          "3",
+          "0",
+          COMPUTE_EQUIVALENCE,
+          "2");
+      assertContains("The graph is NOT an equivalence relation");
+      assertContains("[0, 1, 2, 3]");
+    }
+
+    @Test
+    public void T1_A_reopen_after_adding_edge() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", ADD_EDGE, "5", "0", OPEN_FILE, "a.txt", COMPUTE_COMPONENTS);
+      assertContains("Edge 5 -> 0 was added");
+      assertDoesNotContain("[0, 1, 5]");
+    }
+
+    @Test
+    public void T1_w_colliding_roots_keep_their_order() throws Exception {
+      // "0" and "110" share a bucket of a small hash set, but not of one holding every vertex
+      final List<Object> commands = new ArrayList<>(List.of(OPEN_FILE, "w.txt"));
+      commands.addAll(List.of(ADD_EDGE, "110", "1"));
+      for (int vertex = 20; vertex <= 60; vertex++) {
+        commands.addAll(List.of(ADD_EDGE, String.valueOf(vertex - 1), String.valueOf(vertex)));
+      }
+      commands.addAll(List.of(LIST_ROOT_VERTICIES, GRAPH_SEARCH_IBFS));
+      runCommands(commands.toArray());
+      assertContains("[110, 0]");
+      assertContains("[110, 1, 3, 0, 2, 4,");
+    }
+
+    @Test
+    public void T1_C_analyze() throws Exception {
+      runCommands(OPEN_FILE, "c.txt", ANALYZE);
+      assertContains("The graph is reflexive");
+      assertContains("The graph is symmetric");
+      assertContains("The graph is transitive");
+      assertContains("The graph is NOT antisymmetric");
+      assertContains("The graph is an equivalence relation");
+    }
+
     @Test
     public void T2_w_iterative_BFS() throws Exception {
       runCommands(OPEN_FILE, "w.txt", GRAPH_SEARCH_IBFS);
@@ -317,5 +443,12 @@ public class MainTest {
       assertContains("Successfully opened graph from file w.txt");
       assertContains("[0, 1, 3, 2, 4, 5, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 6]");
     }
+
+    @Test
+    public void T2_A_parallel_BFS() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", GRAPH_SEARCH_PBFS);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("[[0], [1, 2], [3, 4, 5]]");
+    }
   }
 }